@@ -0,0 +1,60 @@
+package com.bankservice.benchmark;
+
+import com.bankservice.model.Account;
+import com.bankservice.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the account and transfer response bodies, with the same
+ * ObjectMapper configuration Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Account account;
+    private Map<String, Object> transferResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        account = Account.builder()
+            .id(1L)
+            .type("CHECKING")
+            .number("ACC00000000000000001")
+            .primaryFlag(true)
+            .balance(1000.0)
+            .build();
+        Transaction transaction = Transaction.builder()
+            .id(1L)
+            .account(account)
+            .amount(100.0)
+            .direction("OUT")
+            .description("Transfer to ACC00000000000000002: rent")
+            .balanceAfter(900.0)
+            .timestamp(LocalDateTime.now())
+            .build();
+        transferResponse = Map.of("transaction", transaction, "message", "Transfer completed successfully");
+    }
+
+    @Benchmark
+    public byte[] account() throws Exception {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] transferResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(transferResponse);
+    }
+}
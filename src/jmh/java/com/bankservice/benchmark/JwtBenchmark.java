@@ -0,0 +1,51 @@
+package com.bankservice.benchmark;
+
+import com.bankservice.config.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, with the verified-token cache both hit and missed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil coldJwtUtil;
+    private String token;
+    private String[] alternating;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry(), 10_000);
+        token = jwtUtil.generateToken("42");
+        jwtUtil.extractSubject(token);
+        // A one-entry cache fed two tokens in turn misses every time
+        coldJwtUtil = new JwtUtil(new SimpleMeterRegistry(), 1);
+        alternating = new String[] {coldJwtUtil.generateToken("1"), coldJwtUtil.generateToken("2")};
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("42");
+    }
+
+    @Benchmark
+    public String extractSubjectCached() {
+        return jwtUtil.extractSubject(token);
+    }
+
+    @Benchmark
+    public String extractSubjectVerified() {
+        next ^= 1;
+        return coldJwtUtil.extractSubject(alternating[next]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bankservice.benchmark;
+
+import com.bankservice.config.JwtAuthenticationFilter;
+import com.bankservice.config.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of a bearer-authenticated request through JwtAuthenticationFilter,
+ * with a token the verified-token cache already holds, and with a stream of
+ * new tokens arriving at a cache that is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final int CACHE_ENTRIES = 10_000;
+    // Far more distinct tokens than the cache holds, so nearly every one misses
+    private static final int NEW_TOKENS = 200_000;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private JwtAuthenticationFilter fullCacheFilter;
+    private String[] newAuthorizations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(new SimpleMeterRegistry(), CACHE_ENTRIES);
+        filter = filterFor(jwtUtil);
+        authorization = "Bearer " + jwtUtil.generateToken("42");
+
+        JwtUtil fullCacheJwtUtil = new JwtUtil(new SimpleMeterRegistry(), CACHE_ENTRIES);
+        for (int i = 0; i < CACHE_ENTRIES; i++) {
+            fullCacheJwtUtil.extractSubject(fullCacheJwtUtil.generateToken("warm-" + i));
+        }
+        fullCacheFilter = filterFor(fullCacheJwtUtil);
+        newAuthorizations = new String[NEW_TOKENS];
+        for (int i = 0; i < NEW_TOKENS; i++) {
+            newAuthorizations[i] = "Bearer " + fullCacheJwtUtil.generateToken(Integer.toString(i));
+        }
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        return run(filter, authorization);
+    }
+
+    @Benchmark
+    public Object doFilterNewTokenFullCache() throws Exception {
+        next = (next + 1) % NEW_TOKENS;
+        return run(fullCacheFilter, newAuthorizations[next]);
+    }
+
+    private static JwtAuthenticationFilter filterFor(JwtUtil jwtUtil) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        return filter;
+    }
+
+    private static Object run(JwtAuthenticationFilter filter, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bankservice.benchmark;
+
+import com.bankservice.BankServiceApplication;
+import com.bankservice.dto.AccountDTO;
+import com.bankservice.dto.AccountSummary;
+import com.bankservice.dto.SignupRequest;
+import com.bankservice.dto.TransferRequest;
+import com.bankservice.model.AccountHolder;
+import com.bankservice.repository.AccountRepository;
+import com.bankservice.service.AccountService;
+import com.bankservice.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService.transferMoney end to end against a SQLite file in a temp
+ * directory: stripe locks, write pipeline, journal inserts and commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final int ACCOUNTS = 64;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private List<Long> accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bank-bench");
+        context = new SpringApplicationBuilder(BankServiceApplication.class)
+            // Arguments, not defaults: they must win over application.properties and the environment.
+            // The security configuration needs a web context, so the server starts on a free port.
+            .run("--server.port=0",
+                "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("bench.db"),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+
+        SignupRequest signup = new SignupRequest();
+        signup.setName("Benchmark Holder");
+        signup.setEmail("benchmark@example.com");
+        signup.setPassword("password123");
+        List<AccountDTO> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountDTO account = new AccountDTO();
+            account.setType("CHECKING");
+            account.setPrimaryFlag(i == 0);
+            account.setBalance(1_000_000_000.0);
+            accounts.add(account);
+        }
+        signup.setAccounts(accounts);
+        AccountHolder holder = context.getBean(AuthService.class).signup(signup);
+
+        accountIds = context.getBean(AccountRepository.class)
+            .findSummariesByHolderId(holder.getId(), PageRequest.of(0, ACCOUNTS))
+            .map(AccountSummary::id)
+            .getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Object transferMoney() {
+        return accountService.transferMoney(randomTransfer());
+    }
+
+    // Concurrent callers, so stripes and group commit are exercised
+    @Benchmark
+    @Threads(8)
+    public Object transferMoneyConcurrent() {
+        return accountService.transferMoney(randomTransfer());
+    }
+
+    private TransferRequest randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.size());
+        int to = (from + 1 + random.nextInt(accountIds.size() - 1)) % accountIds.size();
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(accountIds.get(from));
+        request.setToAccountId(accountIds.get(to));
+        request.setAmount(BigDecimal.ONE);
+        request.setDescription("benchmark");
+        return request;
+    }
+}
@@ -0,0 +1,254 @@
+package com.bankservice.loadtest;
+
+import com.bankservice.BankServiceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator. Requests are scheduled at a fixed rate and
+ * sent without waiting for earlier ones to finish. Latency is measured from
+ * each request's scheduled start, so a stalled server shows up as queueing
+ * delay instead of silently lowering the offered load.
+ *
+ * By default the app is started in this JVM on a random port with a SQLite
+ * file in a temp directory, and then seeded with users over HTTP. Pass
+ * target=http://host:port to load an instance that is already running.
+ *
+ * Arguments (key=value): rate (requests/s), duration (s), users,
+ * mix (login:1,transfer:6,history:2,statement:1), target. Seeded tokens
+ * live ten minutes, which bounds the duration of one run.
+ *
+ * Run with: mvn -Ploadtest verify -Dload.rate=500 -Dload.duration=60
+ */
+public class LoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "password123";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final String baseUrl;
+    private final List<User> users = new ArrayList<>();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    // Most requests awaiting a response at once; the server's concurrency under this load
+    private final AtomicLong peakInFlight = new AtomicLong();
+
+    private LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "20"));
+        String mix = options.getOrDefault("mix", "login:1,transfer:6,history:2,statement:1");
+        String target = options.getOrDefault("target", "");
+
+        Path directory = null;
+        ConfigurableApplicationContext context = null;
+        if (target.isBlank()) {
+            directory = Files.createTempDirectory("bank-load");
+            // Arguments, not defaults: they must win over application.properties and the
+            // environment, or the run would bind port 8080 and reset the real ./bank.db
+            context = new SpringApplicationBuilder(BankServiceApplication.class)
+                .run("--server.port=0",
+                    "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("load.db"),
+                    "--spring.jpa.show-sql=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN");
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(target);
+            generator.seed(userCount);
+            generator.run(parseMix(mix), rate, durationSeconds);
+            generator.report(durationSeconds);
+        } finally {
+            if (context != null) {
+                context.close();
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    private void seed(int userCount) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < userCount; i++) {
+            String email = "load-" + runId + "-" + i + "@example.com";
+            Map<String, Object> signup = Map.of(
+                "name", "Load User " + i,
+                "email", email,
+                "password", PASSWORD,
+                "accounts", List.of(
+                    Map.of("type", "CHECKING", "primaryFlag", true, "balance", 1_000_000_000.0),
+                    Map.of("type", "SAVINGS", "primaryFlag", false, "balance", 1_000_000_000.0)));
+            JsonNode signedUp = send(post("/auth/signup", null, signup));
+            String token = signedUp.get("token").asText();
+
+            JsonNode accounts = send(get("/api/me/accounts", token)).get("accounts");
+            users.add(new User(email, token, accounts.get(0).get("id").asLong(), accounts.get(1).get("id").asLong()));
+        }
+        System.out.printf("Seeded %d users against %s%n", users.size(), baseUrl);
+    }
+
+    private void run(Map<String, Integer> mix, int rate, int durationSeconds) throws Exception {
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            endpoints.put(name, new Endpoint());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(name);
+            }
+        });
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        AtomicLong outstanding = new AtomicLong();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String name = weighted.get(random.nextInt(weighted.size()));
+            User user = users.get(random.nextInt(users.size()));
+            Endpoint endpoint = endpoints.get(name);
+
+            peakInFlight.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            client.sendAsync(request(name, user, random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - scheduled;
+                    endpoint.latencies.recordValue(Math.min(latency, endpoint.latencies.getHighestTrackableValue()));
+                    if (error != null || response.statusCode() >= 400) {
+                        endpoint.errors.incrementAndGet();
+                    }
+                    outstanding.decrementAndGet();
+                });
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest request(String name, User user, ThreadLocalRandom random) {
+        boolean forward = random.nextBoolean();
+        long from = forward ? user.checkingId() : user.savingsId();
+        long to = forward ? user.savingsId() : user.checkingId();
+        return switch (name) {
+            case "login" -> post("/auth/login", null, Map.of("email", user.email(), "password", PASSWORD));
+            case "transfer" -> post("/api/transfer", user.token(),
+                Map.of("fromAccountId", from, "toAccountId", to, "amount", 1.00, "description", "load"));
+            case "history" -> get("/api/accounts/" + from + "/transactions?limit=50", user.token());
+            case "statement" -> get("/api/accounts/" + from + "/statements", user.token());
+            default -> throw new IllegalArgumentException("Unknown endpoint in mix: " + name);
+        };
+    }
+
+    private void report(int durationSeconds) {
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, endpoint) -> {
+            Histogram h = endpoint.latencies;
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, h.getTotalCount(), endpoint.errors.get(), (double) h.getTotalCount() / durationSeconds,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        });
+        System.out.printf("peak in-flight requests: %d%n", peakInFlight.get());
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.put(arg.substring(0, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            weights.put(entry[0], entry.length > 1 ? Integer.parseInt(entry[1]) : 1);
+        }
+        return weights;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private record User(String email, String token, long checkingId, long savingsId) {}
+
+    private static class Endpoint {
+        // One minute at three significant digits
+        final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final AtomicInteger errors = new AtomicInteger();
+    }
+}
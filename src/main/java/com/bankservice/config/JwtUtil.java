@@ -1,14 +1,44 @@
 package com.bankservice.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 
 @Component
 public class JwtUtil {
     private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("mysecretkeymysecretkeymysecretkey".getBytes());
+    // Parsers are immutable and thread-safe; build once instead of per request
+    private final JwtParser parser = Jwts.parser().verifyWith(SECRET_KEY).build();
+    private final VerifiedTokenCache verifiedTokens;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+
+    public JwtUtil(MeterRegistry meterRegistry,
+                   @Value("${bank.jwt.verified-cache.max-entries:10000}") int cacheMaxEntries) {
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
+        this.cacheHits = Counter.builder("jwt.verified.cache")
+            .tag("result", "hit")
+            .description("Bearer tokens answered from the verified-token cache")
+            .register(meterRegistry);
+        this.cacheMisses = Counter.builder("jwt.verified.cache")
+            .tag("result", "miss")
+            .description("Bearer tokens that needed full signature verification")
+            .register(meterRegistry);
+        this.verifyValid = verifyTimer(meterRegistry, "valid");
+        this.verifyInvalid = verifyTimer(meterRegistry, "invalid");
+        meterRegistry.gauge("jwt.verified.cache.size", verifiedTokens, VerifiedTokenCache::size);
+    }
     
     public String generateToken(String subject) {
         return Jwts.builder()
@@ -20,17 +50,8 @@ public class JwtUtil {
     }
     
     public boolean validateToken(String token, String subject) {
-        try {
-            String tokenSubject = Jwts.parser()
-                    .verifyWith(SECRET_KEY)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-            return tokenSubject.equals(subject);
-        } catch (Exception e) {
-            return false;
-        }
+        String tokenSubject = extractSubject(token);
+        return tokenSubject != null && tokenSubject.equals(subject);
     }
     
     public SecretKey getSecretKey() {
@@ -38,15 +59,31 @@ public class JwtUtil {
     }
     
     public String extractSubject(String token) {
+        String cached = verifiedTokens.get(token);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        long start = System.nanoTime();
         try {
-            return Jwts.parser()
-                    .verifyWith(SECRET_KEY)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (claims.getSubject() != null && claims.getExpiration() != null) {
+                verifiedTokens.put(token, claims.getSubject(), claims.getExpiration().getTime());
+            }
+            return claims.getSubject();
         } catch (Exception e) {
+            verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return null;
         }
     }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verify")
+            .tag("result", result)
+            .description("Signature verification time for tokens missing from the verified-token cache")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
 }
@@ -0,0 +1,112 @@
+package com.bankservice.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import javax.sql.DataSource;
+
+/**
+ * DataSource whose connections hand out statements that report the time of
+ * every execute call to the SqlStatementMonitor. Only the execute methods are
+ * timed; reading rows from a returned ResultSet is not included.
+ */
+class MonitoredDataSource extends DelegatingDataSource {
+    private final SqlStatementMonitor monitor;
+
+    MonitoredDataSource(DataSource target, SqlStatementMonitor monitor) {
+        super(target);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+    }
+
+    // Proxies are compared by identity; Hibernate keys its statement registry on them
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = MonitoredDataSource.invoke(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement(result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Object statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(), new Class<?>[] {type},
+                new StatementHandler((Statement) statement, sql));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedShape;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedShape = preparedSql != null ? monitor.preparedShape(preparedSql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return MonitoredDataSource.invoke(proxy, target, method, args);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = MonitoredDataSource.invoke(proxy, target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (preparedShape != null) {
+                    monitor.recordShape(preparedShape, elapsed, failed);
+                } else {
+                    // Plain statements carry their SQL in the execute call
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    monitor.record(sql, elapsed, failed);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bankservice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+
+// Routes the application's DataSource through MonitoredDataSource
+@Component
+public class MonitoredDataSourcePostProcessor implements BeanPostProcessor {
+    // Looked up lazily: post-processors are created before ordinary beans
+    private final ObjectProvider<SqlStatementMonitor> monitor;
+
+    public MonitoredDataSourcePostProcessor(ObjectProvider<SqlStatementMonitor> monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof MonitoredDataSource)) {
+            return new MonitoredDataSource(dataSource, monitor.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,154 @@
+package com.bankservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates timings of every JDBC statement by shape: the SQL with literals
+ * replaced by ? and IN lists collapsed, so one query with different arguments
+ * counts as one entry.
+ *
+ * Normalizing takes several regex passes, too much to repeat on every execute
+ * of the single writer thread. Prepared SQL is a fixed string per query, so its
+ * shape is computed once and kept in a map bounded by max-cached-sql; only SQL
+ * passed to a plain Statement, or prepared SQL beyond that bound, is
+ * normalized per call.
+ *
+ * Statements slower than the threshold are always logged at WARN; faster ones
+ * are logged at INFO for a random sample only, so the log shows what normal
+ * traffic looks like without one console write per statement. Both go to the
+ * bank.sql logger as key=value lines.
+ */
+@Component
+public class SqlStatementMonitor {
+    private static final Logger log = LoggerFactory.getLogger("bank.sql");
+    private static final String OVERFLOW_SHAPE = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<String, String> preparedShapes = new ConcurrentHashMap<>();
+    private final LongAdder statements = new LongAdder();
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxShapes;
+    private final int maxCachedSql;
+
+    public SqlStatementMonitor(@Value("${bank.sql.slow-threshold-ms:50}") long slowThresholdMillis,
+                               @Value("${bank.sql.sample-rate:0.001}") double sampleRate,
+                               @Value("${bank.sql.max-shapes:500}") int maxShapes,
+                               @Value("${bank.sql.max-cached-sql:2000}") int maxCachedSql) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+        this.maxCachedSql = maxCachedSql;
+    }
+
+    // For SQL executed as given, e.g. through a plain Statement
+    public void record(String sql, long elapsedNanos, boolean failed) {
+        recordShape(shapeOf(sql), elapsedNanos, failed);
+    }
+
+    // The shape of prepared SQL, normalized once per distinct string
+    public String preparedShape(String sql) {
+        String shape = preparedShapes.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        return preparedShapes.size() < maxCachedSql
+            ? preparedShapes.computeIfAbsent(sql, SqlStatementMonitor::shapeOf)
+            : shapeOf(sql);
+    }
+
+    public void recordShape(String shape, long elapsedNanos, boolean failed) {
+        statements.increment();
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            // Bounded so ad-hoc SQL cannot grow the map without limit
+            stats = shapes.size() < maxShapes
+                ? shapes.computeIfAbsent(shape, s -> new ShapeStats())
+                : shapes.computeIfAbsent(OVERFLOW_SHAPE, s -> new ShapeStats());
+        }
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        stats.record(elapsedNanos, slow);
+
+        if (slow) {
+            log.warn("event=slow_query duration_ms={} failed={} shape=\"{}\"", millis(elapsedNanos), failed, shape);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("event=sampled_query duration_ms={} failed={} shape=\"{}\"", millis(elapsedNanos), failed, shape);
+        }
+    }
+
+    // The most expensive shapes by total time spent in them
+    public List<Map<String, Object>> top(int limit) {
+        List<Map.Entry<String, ShapeStats>> entries = new ArrayList<>(shapes.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, ShapeStats> e) -> e.getValue().totalNanos.sum()).reversed());
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<String, ShapeStats> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            ShapeStats stats = entry.getValue();
+            long count = stats.count.sum();
+            long total = stats.totalNanos.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("shape", entry.getKey());
+            row.put("count", count);
+            row.put("slowCount", stats.slowCount.sum());
+            row.put("totalMs", millis(total));
+            row.put("meanMs", count == 0 ? 0.0 : millis(total / count));
+            row.put("maxMs", millis(stats.maxNanos.get()));
+            top.add(row);
+        }
+        return top;
+    }
+
+    // Statements executed since startup, including any recorded before a reset
+    public long statementCount() {
+        return statements.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    static String shapeOf(String sql) {
+        if (sql == null) {
+            return "(batch)";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class ShapeStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long elapsedNanos, boolean slow) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            if (slow) {
+                slowCount.increment();
+            }
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bankservice.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/sqlstats lists the statement shapes that took the most total time
+ * since startup or the last reset; DELETE clears the counters.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatementMonitor monitor;
+
+    public SqlStatsEndpoint(SqlStatementMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> top(@Nullable Integer limit) {
+        return monitor.top(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
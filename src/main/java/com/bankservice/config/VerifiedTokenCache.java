@@ -0,0 +1,85 @@
+package com.bankservice.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded map of tokens whose signature has already been verified, keyed by a
+ * SHA-256 of the token so raw bearer tokens are never kept on the heap. Entries
+ * die at the token's own expiry.
+ *
+ * When the map reaches max-entries it is trimmed in one pass down to a
+ * low-water mark of 90%, expired entries first. The scan therefore runs once
+ * per tenth of the capacity in new tokens rather than on every put, and only
+ * one thread trims at a time while the others keep inserting.
+ */
+class VerifiedTokenCache {
+    private record Entry(String subject, long expiresAtMillis) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maxEntries;
+    private final int lowWaterEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.lowWaterEntries = maxEntries - Math.max(1, maxEntries / 10);
+    }
+
+    String get(String token) {
+        String key = keyOf(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.subject();
+    }
+
+    void put(String token, String subject, long expiresAtMillis) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(keyOf(token), new Entry(subject, expiresAtMillis));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Drops expired entries first, then arbitrary ones down to the low-water mark
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            Iterator<String> keys = entries.keySet().iterator();
+            while (entries.size() > lowWaterEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
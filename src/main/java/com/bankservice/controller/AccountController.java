@@ -3,33 +3,63 @@ package com.bankservice.controller;
 import com.bankservice.dto.*;
 import com.bankservice.model.*;
 import com.bankservice.service.AccountService;
+import com.bankservice.service.CardIssuanceJob;
+import com.bankservice.service.CardIssuanceService;
+import com.bankservice.service.IdempotencyKeyReusedException;
+import com.bankservice.service.StorageBusyException;
+import com.bankservice.service.TransferConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api")
 public class AccountController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
     
     @Autowired
     private AccountService accountService;
+    
+    @Autowired
+    private CardIssuanceService cardIssuanceService;
 
     // Account Management
     @GetMapping("/accounts")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Account>> getAllAccounts() {
+    public ResponseEntity<List<AccountSummary>> getAllAccounts(Authentication authentication) {
         try {
-            List<Account> accounts = accountService.getAllAccounts();
+            List<AccountSummary> accounts = accountService.getAllAccounts(Long.valueOf(authentication.getName()));
             return ResponseEntity.ok(accounts);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/me/accounts")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getMyAccounts(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Long holderId = Long.valueOf(authentication.getName());
+            return ResponseEntity.ok(accountService.getHolderAccounts(holderId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/accounts/{accountId}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Account> getAccount(@PathVariable Long accountId) {
@@ -50,6 +80,8 @@ public class AccountController {
                 "account", account,
                 "message", "Account created successfully"
             ));
+        } catch (StorageBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -58,24 +90,52 @@ public class AccountController {
     // Transaction Operations
     @GetMapping("/accounts/{accountId}/transactions")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Transaction>> getAccountTransactions(@PathVariable Long accountId) {
+    public ResponseEntity<?> getAccountTransactions(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<Transaction> transactions = accountService.getAccountTransactions(accountId);
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = accountService.getTransactionPage(accountId, cursor, limit);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/transfer")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> transferMoney(@Valid @RequestBody TransferRequest transferRequest) {
+    public ResponseEntity<?> transferMoney(
+            @Valid @RequestBody TransferRequest transferRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            Transaction transaction = accountService.transferMoney(transferRequest);
+            Transaction transaction = accountService.transferMoney(transferRequest, idempotencyKey);
             return ResponseEntity.ok(Map.of(
                 "transaction", transaction,
                 "message", "Transfer completed successfully"
             ));
+        } catch (TransferConflictException e) {
+            return conflict(e);
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage()));
+        } catch (StorageBusyException e) {
+            return busy(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/transfers/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> transferBatch(@Valid @RequestBody BatchTransferRequest batchRequest) {
+        try {
+            List<TransferResult> results = accountService.transferBatch(batchRequest.getTransfers());
+            long completed = results.stream().filter(r -> "COMPLETED".equals(r.getStatus())).count();
+            return ResponseEntity.ok(Map.of(
+                "results", results,
+                "completed", completed,
+                "rejected", results.size() - completed,
+                "message", "Batch processed"
+            ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -102,6 +162,70 @@ public class AccountController {
                 "card", card,
                 "message", "Card issued successfully"
             ));
+        } catch (StorageBusyException e) {
+            return busy(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/accounts/{accountId}/cards/bulk")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> issueCardsInBulk(
+            @PathVariable Long accountId,
+            @Valid @RequestBody BulkCardRequest request,
+            Authentication authentication) {
+        try {
+            CardIssuanceJob job = cardIssuanceService.submit(accountId, request, authentication.getName());
+            return ResponseEntity.accepted().body(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/card-jobs/{jobId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getCardJob(@PathVariable String jobId, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(cardIssuanceService.getJob(jobId, authentication.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Returns the generated numbers, CVVs and PINs once; later calls get an empty list
+    @GetMapping("/card-jobs/{jobId}/cards")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> collectIssuedCards(@PathVariable String jobId, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(Map.of("cards",
+                cardIssuanceService.collectIssuedCards(jobId, authentication.getName())));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/accounts/{accountId}/balance-history")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getBalanceHistory(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            List<DailyBalance> days = accountService.getBalanceHistory(accountId, from, to);
+            return ResponseEntity.ok(Map.of("days", days));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/accounts/{accountId}/ledger")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> verifyLedger(@PathVariable Long accountId) {
+        try {
+            return ResponseEntity.ok(accountService.verifyLedger(accountId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -124,4 +248,36 @@ public class AccountController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    // Streaming export, selected by Accept: application/x-ndjson or text/csv
+    @GetMapping(value = "/accounts/{accountId}/statements", produces = {NDJSON, CSV})
+    @PreAuthorize("hasRole('USER')")
+    public void exportStatement(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept,
+            HttpServletResponse response) throws IOException {
+        boolean csv = accept.contains(CSV);
+        response.setContentType((csv ? CSV : NDJSON) + ";charset=UTF-8");
+        try {
+            accountService.exportStatement(accountId, startDate, endDate, csv, response.getWriter());
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> conflict(TransferConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    private ResponseEntity<?> busy(StorageBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", e.getMessage()));
+    }
 }
@@ -2,8 +2,14 @@ package com.bankservice.controller;
 
 import com.bankservice.config.JwtUtil;
 import com.bankservice.dto.*;
+import com.bankservice.model.Card;
 import com.bankservice.service.AuthService;
+import com.bankservice.service.CardValidationService;
+import com.bankservice.service.HashingCapacityException;
+import com.bankservice.service.StorageBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
@@ -18,6 +24,9 @@ public class AuthController {
     
     @Autowired
     private AuthService authService;
+    
+    @Autowired
+    private CardValidationService cardValidation;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@Valid @RequestBody SignupRequest request) {
@@ -26,9 +35,12 @@ public class AuthController {
             String token = jwtUtil.generateToken(accountHolder.getId().toString());
             return ResponseEntity.ok(Map.of(
                 "token", token,
+                "refreshToken", authService.issueRefreshToken(accountHolder),
                 "user", accountHolder,
                 "message", "Account created successfully"
             ));
+        } catch (HashingCapacityException | StorageBusyException e) {
+            return overloaded(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -41,28 +53,56 @@ public class AuthController {
             String token = jwtUtil.generateToken(accountHolder.getId().toString());
             return ResponseEntity.ok(Map.of(
                 "token", token,
+                "refreshToken", authService.issueRefreshToken(accountHolder),
                 "user", accountHolder,
                 "message", "Login successful"
             ));
+        } catch (HashingCapacityException | StorageBusyException e) {
+            return overloaded(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid credentials"));
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        try {
+            var accountHolder = authService.redeemRefreshToken(request.getRefreshToken());
+            String token = jwtUtil.generateToken(accountHolder.getId().toString());
+            return ResponseEntity.ok(Map.of(
+                "token", token,
+                "refreshToken", authService.issueRefreshToken(accountHolder),
+                "message", "Token refreshed"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid refresh token"));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshRequest request) {
+        authService.revokeRefreshToken(request.getRefreshToken());
+        return ResponseEntity.ok(Map.of("message", "Refresh token revoked"));
+    }
+
     @PostMapping("/card/validate")
     public ResponseEntity<?> validateCard(@Valid @RequestBody CardValidationRequest request) {
         try {
-            // Minimal validation logic - in real app this would validate against database
-            if ("1234567890123456".equals(request.getCardNumber()) && "123".equals(request.getCvv())) {
-                String token = jwtUtil.generateToken(request.getCardNumber());
-                return ResponseEntity.ok(Map.of(
-                    "token", token,
-                    "message", "Card validated successfully"
-                ));
-            }
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid card details"));
+            Card card = cardValidation.validate(request.getCardNumber(), request.getCvv());
+            // Subject names the card, never the PAN
+            String token = jwtUtil.generateToken("card:" + card.getId());
+            return ResponseEntity.ok(Map.of(
+                "token", token,
+                "message", "Card validated successfully"
+            ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    private ResponseEntity<?> overloaded(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", e.getMessage()));
+    }
 }
@@ -1,11 +1,21 @@
 package com.bankservice.controller;
 
+import com.bankservice.service.StorageBusyException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    @ExceptionHandler(StorageBusyException.class)
+    public ResponseEntity<String> handleStorageBusy(StorageBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
@@ -0,0 +1,16 @@
+package com.bankservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPage {
+    private List<AccountSummary> accounts;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,14 @@
+package com.bankservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Immutable column projection of an account; version is the row version the
+// balance was read at and is never serialized
+public record AccountSummary(
+    Long id,
+    String number,
+    String type,
+    boolean primaryFlag,
+    double balance,
+    @JsonIgnore long version
+) {}
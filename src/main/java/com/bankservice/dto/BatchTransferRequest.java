@@ -0,0 +1,14 @@
+package com.bankservice.dto;
+
+import lombok.Data;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "At most 10000 transfers per batch")
+    private List<@Valid TransferRequest> transfers;
+}
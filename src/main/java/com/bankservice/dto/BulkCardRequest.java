@@ -0,0 +1,16 @@
+package com.bankservice.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+@Data
+public class BulkCardRequest {
+    @NotBlank(message = "Card type is required")
+    @Pattern(regexp = "DEBIT|CREDIT", message = "Card type must be DEBIT or CREDIT")
+    private String cardType;
+
+    @Min(value = 1, message = "Count must be at least 1")
+    private int count;
+}
@@ -0,0 +1,16 @@
+package com.bankservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Card secrets as generated, handed over once when a bulk job's output is collected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuedCard {
+    private Long cardId;
+    private String cardNumber;
+    private String cvv;
+    private String pin;
+}
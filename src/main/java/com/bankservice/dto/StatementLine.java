@@ -0,0 +1,17 @@
+package com.bankservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementLine {
+    private Long id;
+    private LocalDateTime timestamp;
+    private double amount;
+    private String direction;
+    private String description;
+}
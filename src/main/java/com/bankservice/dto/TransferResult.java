@@ -0,0 +1,23 @@
+package com.bankservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+    private int index;
+    private String status; // COMPLETED, REJECTED
+    private Long transactionId;
+    private String error;
+
+    public static TransferResult completed(int index, Long transactionId) {
+        return new TransferResult(index, "COMPLETED", transactionId, null);
+    }
+
+    public static TransferResult rejected(int index, String error) {
+        return new TransferResult(index, "REJECTED", null, error);
+    }
+}
@@ -3,30 +3,41 @@ package com.bankservice.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_account_holder", columnList = "holder_id, id"))
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(exclude = {"transactionList", "holder"})
-@EqualsAndHashCode(exclude = {"transactionList", "holder"})
+@ToString(exclude = {"transactionList", "holder", "card"})
+@EqualsAndHashCode(exclude = {"transactionList", "holder", "card"})
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequentialId
     private Long id;
     private String type; // CREDIT/DEBIT totdo: Make this an enum
+    @Column(unique = true)
     private String number;
     private boolean primaryFlag;
+    // Snapshot of the journal up to and including entry checkpointSequence
     private double balance;
+    private long checkpointSequence;
+    // Bumped by every balance write; snapshot UPDATEs only apply at the version that was read
+    @Version
+    @JsonIgnore
+    private long version;
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Transaction> transactionList;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "holder_id")
     @JsonIgnore
     private AccountHolder holder;
-    @OneToOne(cascade = CascadeType.ALL)
+    // Lazy; endpoints that return the account load it with AccountRepository.findWithCardById
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Card card;
 }
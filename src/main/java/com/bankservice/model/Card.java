@@ -1,6 +1,7 @@
 package com.bankservice.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -14,19 +15,28 @@ import java.time.LocalDate;
 @EqualsAndHashCode(exclude = "account")
 public class Card {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequentialId
     private Long id;
     
+    // Masked for display; the full PAN is never stored
     private String cardNumber;
+    // Keyed hash of the full PAN, the only form cards are looked up by
+    @JsonIgnore
+    @Column(name = "pan_hash", unique = true)
+    private String panHash;
+    // Full PAN, only present on the response that issued the card
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String issuedPan;
     private String cardType; // DEBIT, CREDIT
     @JsonIgnore
-    private String cvv;
+    private String cvv; // keyed hash, bound to the PAN
     @JsonIgnore
-    private String pin;
+    private String pin; // keyed hash, bound to the PAN
     private boolean isActive;
     private LocalDate expirationDate;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @JsonIgnore
     private Account account;
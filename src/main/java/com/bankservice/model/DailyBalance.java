@@ -0,0 +1,35 @@
+package com.bankservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_balance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_balance_account_day", columnNames = {"account_id", "balance_day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "account")
+@EqualsAndHashCode(exclude = "account")
+public class DailyBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "balance_day")
+    private LocalDate day;
+    private double openingBalance;
+    private double totalIn;
+    private double totalOut;
+    private int transactionCount;
+    private double closingBalance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    @JsonIgnore
+    private Account account;
+}
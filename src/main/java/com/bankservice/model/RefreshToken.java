@@ -0,0 +1,31 @@
+package com.bankservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+    @Index(name = "uk_refresh_token_hash", columnList = "tokenHash", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "holder")
+@EqualsAndHashCode(exclude = "holder")
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 of the token handed to the client; the raw value is never stored
+    private String tokenHash;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private boolean revoked;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "holder_id")
+    private AccountHolder holder;
+}
@@ -0,0 +1,16 @@
+package com.bankservice.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Marks an id assigned in memory by SequentialIdGenerator, so inserts can be JDBC-batched
+@IdGeneratorType(SequentialIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SequentialId {
+}
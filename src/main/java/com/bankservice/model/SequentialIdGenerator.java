@@ -0,0 +1,62 @@
+package com.bankservice.model;
+
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import java.lang.reflect.Member;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from an in-memory counter, seeded once from max(id) of the
+ * entity's table by a read in the session that asks for the first id.
+ *
+ * IDENTITY ids would disable Hibernate's insert batching. Table and sequence
+ * generators fetch id blocks on a second connection in their own transaction,
+ * which SQLite, admitting one writer at a time, refuses while the write
+ * transaction that needs the id is open. A counter needs neither.
+ *
+ * Ids are only unique while this process is the only one inserting rows,
+ * which the single-writer WritePipeline already assumes.
+ *
+ * Seeding runs a query, so it is guarded by a ReentrantLock rather than a
+ * monitor: a virtual thread blocked on that read does not pin its carrier.
+ */
+public class SequentialIdGenerator implements IdentifierGenerator {
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+    private final AtomicLong last = new AtomicLong();
+    private final ReentrantLock seedLock = new ReentrantLock();
+    private volatile boolean seeded;
+
+    public SequentialIdGenerator(SequentialId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.entityName = context.getPersistentClass().getEntityName();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (!seeded) {
+            seed(session);
+        }
+        return last.incrementAndGet();
+    }
+
+    private void seed(SharedSessionContractImplementor session) {
+        seedLock.lock();
+        try {
+            if (seeded) {
+                return;
+            }
+            // Manual flush: ids are generated mid-persist, when pending inserts must stay queued
+            Long max = session.createSelectionQuery("select max(e.id) from " + entityName + " e", Long.class)
+                .setHibernateFlushMode(FlushMode.MANUAL)
+                .getSingleResult();
+            last.set(max == null ? 0 : max);
+            seeded = true;
+        } finally {
+            seedLock.unlock();
+        }
+    }
+}
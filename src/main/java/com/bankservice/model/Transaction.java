@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bank_transaction")
+@Table(name = "bank_transaction", indexes = {
+    @Index(name = "idx_transaction_account_time", columnList = "account_id, timestamp, id"),
+    @Index(name = "idx_transaction_account_seq", columnList = "account_id, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_transaction_idempotency", columnNames = {"account_id", "idempotency_key"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,15 +20,24 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(exclude = "account")
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Assigned in memory rather than by IDENTITY, so batched inserts go out in one JDBC round trip
+    @SequentialId
     private Long id;
     
     private LocalDateTime timestamp;
     private double amount;
     private String direction; // CREDIT, DEBIT, OUT, IN
     private String description;
+    // Running balance of the account once this entry is applied
+    private double balanceAfter;
+    // Client-supplied Idempotency-Key, set on the OUT leg only
+    @JsonIgnore
+    private String idempotencyKey;
+    // SHA-256 of the request that first used the key, to tell a retry from a reuse
+    @JsonIgnore
+    private String idempotencyFingerprint;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @JsonIgnore
     private Account account;
@@ -1,6 +1,48 @@
 package com.bankservice.repository;
 
+import com.bankservice.dto.AccountSummary;
 import com.bankservice.model.Account;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {}
+public interface AccountRepository extends JpaRepository<Account, Long> {
+    @EntityGraph(attributePaths = "card")
+    Optional<Account> findWithCardById(Long id);
+
+    // Ownership check over idx_account_holder, without loading the account
+    boolean existsByIdAndHolderId(Long id, Long holderId);
+
+    // Column projection over idx_account_holder; no entity, card or holder is loaded
+    @Query("SELECT new com.bankservice.dto.AccountSummary(a.id, a.number, a.type, a.primaryFlag, a.balance, a.version) " +
+           "FROM Account a WHERE a.holder.id = :holderId ORDER BY a.id")
+    Slice<AccountSummary> findSummariesByHolderId(@Param("holderId") Long holderId, Pageable pageable);
+
+    // Moves the snapshot forward in one statement, without loading the row.
+    // 0 rows means the account changed since it was read at that version.
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.checkpointSequence = :sequence, " +
+           "a.version = a.version + 1 WHERE a.id = :id AND a.version = :version")
+    int advanceSnapshot(@Param("id") Long id, @Param("delta") double delta, @Param("sequence") long sequence,
+                        @Param("version") long version);
+
+    // Debits only while the balance covers the amount and the row is still at
+    // the version read; the check and the write are one statement.
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.checkpointSequence = :sequence, " +
+           "a.version = a.version + 1 WHERE a.id = :id AND a.version = :version AND a.balance >= :amount")
+    int debitIfCovered(@Param("id") Long id, @Param("amount") double amount, @Param("sequence") long sequence,
+                       @Param("version") long version);
+
+    // Scalar reads go to the database, never to a possibly stale managed entity
+    @Query("SELECT new com.bankservice.dto.AccountSummary(a.id, a.number, a.type, a.primaryFlag, a.balance, a.version) " +
+           "FROM Account a WHERE a.id IN :ids")
+    List<AccountSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+}
@@ -2,9 +2,21 @@ package com.bankservice.repository;
 
 import com.bankservice.model.Card;
 import com.bankservice.model.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CardRepository extends JpaRepository<Card, Long> {
     List<Card> findByAccount(Account account);
+
+    Optional<Card> findByPanHash(String panHash);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.panHash FROM Card c WHERE c.panHash IS NOT NULL")
+    Stream<String> streamPanHashes();
 }
@@ -0,0 +1,27 @@
+package com.bankservice.repository;
+
+import com.bankservice.model.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+    // Adds a movement to the day's rollup in place; 0 rows means the day has none yet
+    @Modifying
+    @Query("UPDATE DailyBalance d SET d.totalIn = d.totalIn + :totalIn, d.totalOut = d.totalOut + :totalOut, " +
+           "d.transactionCount = d.transactionCount + :count, d.closingBalance = :closingBalance " +
+           "WHERE d.account.id = :accountId AND d.day = :day")
+    int addMovement(@Param("accountId") Long accountId, @Param("day") LocalDate day,
+                    @Param("totalIn") double totalIn, @Param("totalOut") double totalOut,
+                    @Param("count") int count, @Param("closingBalance") double closingBalance);
+
+    List<DailyBalance> findByAccountIdAndDayBetweenOrderByDayAsc(Long accountId, LocalDate from, LocalDate to);
+
+    Optional<DailyBalance> findFirstByAccountIdAndDayBeforeOrderByDayDesc(Long accountId, LocalDate day);
+
+    Optional<DailyBalance> findFirstByAccountIdAndDayGreaterThanEqualOrderByDayAsc(Long accountId, LocalDate day);
+}
@@ -1,10 +1,72 @@
 package com.bankservice.repository;
 
+import com.bankservice.dto.StatementLine;
 import com.bankservice.model.Transaction;
-import com.bankservice.model.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountOrderByTimestampDesc(Account account);
+    Optional<Transaction> findByAccountIdAndIdempotencyKey(Long accountId, String idempotencyKey);
+
+    // Keyset pages over idx_transaction_account_time, newest first
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findLatest(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findOlderThan(@Param("accountId") Long accountId,
+                                    @Param("timestamp") LocalDateTime timestamp,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.timestamp >= :from AND t.timestamp < :to " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findInPeriod(@Param("accountId") Long accountId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    // Signed sum of everything booked in [from, to); lets a statement step back
+    // from a daily rollup to a time within that day without reading older history.
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.direction IN ('IN', 'CREDIT') THEN t.amount ELSE -t.amount END), 0.0) " +
+           "FROM Transaction t WHERE t.account.id = :accountId AND t.timestamp >= :from AND t.timestamp < :to")
+    Double netMovementBetween(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    // Journal replay from a checkpoint: signed sum of every entry after it
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.direction IN ('IN', 'CREDIT') THEN t.amount ELSE -t.amount END), 0.0) " +
+           "FROM Transaction t WHERE t.account.id = :accountId AND t.id > :sequence")
+    Double netMovementAfter(@Param("accountId") Long accountId, @Param("sequence") long sequence);
+
+    // Export pages, oldest first, keyset over idx_transaction_account_time. Rows
+    // are unmanaged projections, and each page is its own short read transaction,
+    // so a slow client never holds a connection or a WAL snapshot between pages.
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.bankservice.dto.StatementLine(t.id, t.timestamp, t.amount, t.direction, t.description) " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.timestamp >= :from AND t.timestamp < :to " +
+           "ORDER BY t.timestamp ASC, t.id ASC")
+    List<StatementLine> findFirstLinesInPeriod(@Param("accountId") Long accountId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.bankservice.dto.StatementLine(t.id, t.timestamp, t.amount, t.direction, t.description) " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND (t.timestamp > :timestamp OR (t.timestamp = :timestamp AND t.id > :id)) AND t.timestamp < :to " +
+           "ORDER BY t.timestamp ASC, t.id ASC")
+    List<StatementLine> findLinesAfter(@Param("accountId") Long accountId,
+                                       @Param("timestamp") LocalDateTime timestamp,
+                                       @Param("id") Long id,
+                                       @Param("to") LocalDateTime to,
+                                       Pageable pageable);
 }
@@ -0,0 +1,178 @@
+package com.bankservice.service;
+
+import com.bankservice.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of detached Account snapshots by id, bounded by
+ * max-entries and expiring entries after ttl-seconds.
+ *
+ * Writers call {@link #invalidateAfterCommit} inside the transaction that
+ * changes an account, and the entry is dropped as soon as that transaction
+ * completes. To stop a reader that loaded the old row just before the commit
+ * from putting it back afterwards, each id maps to an invalidation stamp.
+ * A loaded row is only cached if its stamp did not move while it was being
+ * read.
+ *
+ * When the cache reaches max-entries it is trimmed in one pass down to a
+ * low-water mark of 90%, expired entries first, the same way VerifiedTokenCache
+ * is. The scan therefore runs once per tenth of the capacity in new loads
+ * instead of on every miss, and only one thread trims at a time.
+ *
+ * Cached accounts are shared between requests and must be treated as read-only.
+ */
+@Component
+public class AccountCache {
+    private static final int STAMPS = 1024;
+
+    private record Entry(Account account, long expiresAtMillis) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMPS);
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final int lowWaterEntries;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${bank.accounts.cache.max-entries:10000}") int maxEntries,
+                        @Value("${bank.accounts.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.lowWaterEntries = maxEntries - Math.max(1, maxEntries / 10);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("account.cache")
+            .tag("result", "hit")
+            .description("Account lookups answered from memory")
+            .register(meterRegistry);
+        this.misses = Counter.builder("account.cache")
+            .tag("result", "miss")
+            .description("Account lookups that went to the database")
+            .register(meterRegistry);
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+        this.invalidations = evictionCounter(meterRegistry, "invalidated");
+    }
+
+    // After construction, so the registry never sees a half-built cache
+    @PostConstruct
+    void registerGauges() {
+        meterRegistry.gauge("account.cache.size", entries, Map::size);
+        meterRegistry.gauge("account.cache.hit.ratio", this, AccountCache::hitRatio);
+    }
+
+    public Optional<Account> get(Long accountId, Function<Long, Optional<Account>> loader) {
+        Entry entry = entries.get(accountId);
+        if (entry != null) {
+            if (entry.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.increment();
+                return Optional.of(entry.account());
+            }
+            if (entries.remove(accountId, entry)) {
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        long stamp = stamps.get(stampOf(accountId));
+        Optional<Account> loaded = loader.apply(accountId);
+        if (loaded.isPresent()) {
+            put(accountId, loaded.get(), stamp);
+        }
+        return loaded;
+    }
+
+    // Drops the account once the surrounding transaction completes, whatever its outcome
+    public void invalidateAfterCommit(Long accountId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(accountId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(accountId);
+            }
+        });
+    }
+
+    public void invalidate(Long accountId) {
+        stamps.incrementAndGet(stampOf(accountId));
+        if (entries.remove(accountId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private void put(Long accountId, Account account, long stamp) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(accountId, new Entry(account, System.currentTimeMillis() + ttlMillis));
+        // Invalidated while we were loading: what we read may predate the write
+        if (stamps.get(stampOf(accountId)) != stamp) {
+            entries.remove(accountId);
+        }
+    }
+
+    // Drops expired entries first, then arbitrary ones down to the low-water mark
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<Entry> values = entries.values().iterator();
+            while (values.hasNext()) {
+                if (values.next().expiresAtMillis() <= now) {
+                    values.remove();
+                    expiredEvictions.increment();
+                }
+            }
+            Iterator<Long> keys = entries.keySet().iterator();
+            while (entries.size() > lowWaterEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                sizeEvictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("account.cache.evictions")
+            .tag("cause", cause)
+            .description("Accounts dropped from the cache")
+            .register(meterRegistry);
+    }
+
+    private static int stampOf(Long accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return h & (STAMPS - 1);
+    }
+}
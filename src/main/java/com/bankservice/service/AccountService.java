@@ -3,15 +3,36 @@ package com.bankservice.service;
 import com.bankservice.model.*;
 import com.bankservice.repository.*;
 import com.bankservice.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @Service
 public class AccountService {
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_ACCOUNT_PAGE_SIZE = 100;
+    private static final int EXPORT_PAGE_ROWS = 500;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final String INSUFFICIENT_BALANCE = "Insufficient balance";
+    private static final LocalDateTime STATEMENT_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private AccountHolderRepository accountHolderRepo;
     @Autowired
@@ -20,6 +41,28 @@ public class AccountService {
     private TransactionRepository transactionRepo;
     @Autowired
     private CardRepository cardRepo;
+    @Autowired
+    private TransferEngine transferEngine;
+    @Autowired
+    private WritePipeline writePipeline;
+    @Autowired
+    private IdGenerator idGenerator;
+    @Autowired
+    private BalanceRollupService balanceRollups;
+    @Autowired
+    private LedgerService ledger;
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private CardValidationService cardValidation;
+    @Autowired
+    private CardSecrets cardSecrets;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${bank.transfer.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     public AccountHolder signup(SignupRequest request) {
         AccountHolder holder = AccountHolder.builder().name(request.getName()).build();
@@ -27,7 +70,7 @@ public class AccountService {
         for (AccountDTO dto : request.getAccounts()) {
             Account acc = Account.builder()
                 .type(dto.getType())
-                .number("ACC" + System.currentTimeMillis()) // Generate account number
+                .number(idGenerator.nextAccountNumber()) // Generate account number
                 .primaryFlag(dto.isPrimaryFlag())
                 .balance(dto.getBalance())
                 .holder(holder)
@@ -39,11 +82,26 @@ public class AccountService {
     }
 
     // Account Management
-    public List<Account> getAllAccounts() {
-        return accountRepo.findAll();
+    // The caller's own accounts as summaries, capped at one account page
+    public List<AccountSummary> getAllAccounts(Long holderId) {
+        return accountRepo.findSummariesByHolderId(holderId, PageRequest.of(0, MAX_ACCOUNT_PAGE_SIZE)).getContent();
     }
 
+    public AccountPage getHolderAccounts(Long holderId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ACCOUNT_PAGE_SIZE));
+        Slice<AccountSummary> slice = accountRepo.findSummariesByHolderId(holderId,
+            PageRequest.of(Math.max(0, page), pageSize));
+        return new AccountPage(slice.getContent(), slice.getNumber(), pageSize, slice.hasNext());
+    }
+
+    // Served from AccountCache; the returned account is shared and must not be modified
     public Account getAccountById(Long accountId) {
+        return accountCache.get(accountId, accountRepo::findWithCardById)
+            .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+
+    // Writes and consistent reads go to the database, never to the cache
+    private Account loadAccount(Long accountId) {
         return accountRepo.findById(accountId)
             .orElseThrow(() -> new RuntimeException("Account not found"));
     }
@@ -51,54 +109,225 @@ public class AccountService {
     public Account createAccount(AccountDTO accountDTO) {
         // For now, create account for first account holder found
         // In real app, this would use the authenticated user
-        AccountHolder holder = accountHolderRepo.findAll().stream()
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("No account holder found"));
-        
-        Account account = Account.builder()
-            .type(accountDTO.getType())
-            .number("ACC" + System.currentTimeMillis())
-            .primaryFlag(accountDTO.isPrimaryFlag())
-            .balance(accountDTO.getBalance())
-            .holder(holder)
-            .build();
-        
-        return accountRepo.save(account);
+        return writePipeline.execute(() -> {
+            AccountHolder holder = accountHolderRepo.findAll().stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No account holder found"));
+            
+            Account account = Account.builder()
+                .type(accountDTO.getType())
+                .number(idGenerator.nextAccountNumber())
+                .primaryFlag(accountDTO.isPrimaryFlag())
+                .balance(accountDTO.getBalance())
+                .holder(holder)
+                .build();
+            
+            Account saved = accountRepo.save(account);
+            ledger.postOpening(saved);
+            return saved;
+        });
     }
 
     // Transaction Operations
-    public List<Transaction> getAccountTransactions(Long accountId) {
+    public TransactionPage getTransactionPage(Long accountId, String cursor, int limit) {
         Account account = getAccountById(accountId);
-        return transactionRepo.findByAccountOrderByTimestampDesc(account);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells us whether another page exists
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepo.findLatest(account.getId(), fetch);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            rows = transactionRepo.findOlderThan(account.getId(), position.timestamp(), position.id(), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, pageSize);
+        Transaction last = page.get(pageSize - 1);
+        return new TransactionPage(page, encodeCursor(last));
     }
 
-    @Transactional
     public Transaction transferMoney(TransferRequest request) {
-        Account fromAccount = getAccountById(request.getFromAccountId());
-        Account toAccount = getAccountById(request.getToAccountId());
-        
-        // Check sufficient balance
-        if (fromAccount.getBalance() < request.getAmount().doubleValue()) {
-            throw new RuntimeException("Insufficient balance");
+        return transferMoney(request, null);
+    }
+
+    // A retried request carrying the same Idempotency-Key gets the original
+    // OUT entry back instead of moving the money a second time. Reusing the key
+    // for a request that differs in any field is refused.
+    public Transaction transferMoney(TransferRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return executeTransfer(request, null, null);
         }
-        
-        // Update balances
-        fromAccount.setBalance(fromAccount.getBalance() - request.getAmount().doubleValue());
-        toAccount.setBalance(toAccount.getBalance() + request.getAmount().doubleValue());
-        
-        accountRepo.save(fromAccount);
-        accountRepo.save(toAccount);
-        
-        // Create transaction record
-        Transaction transaction = Transaction.builder()
-            .account(fromAccount)
-            .amount(request.getAmount().doubleValue())
-            .direction("OUT")
-            .description("Transfer to " + toAccount.getNumber() + ": " + request.getDescription())
-            .timestamp(LocalDateTime.now())
-            .build();
-        
-        return transactionRepo.save(transaction);
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        Transaction transaction = idempotencyCache.getOrCompute(request.getFromAccountId() + ":" + idempotencyKey,
+            () -> executeTransfer(request, idempotencyKey, fingerprint));
+        if (!fingerprint.equals(transaction.getIdempotencyFingerprint())) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different transfer");
+        }
+        return transaction;
+    }
+
+    // Amounts are compared by value, so a retry may send 40 where the original sent 40.00
+    private String fingerprint(TransferRequest request) {
+        BigDecimal amount = request.getAmount().stripTrailingZeros();
+        String canonical = request.getFromAccountId() + "\n" + request.getToAccountId() + "\n"
+            + amount.toPlainString() + "\n" + Objects.toString(request.getDescription(), "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Transaction executeTransfer(TransferRequest request, String idempotencyKey, String fingerprint) {
+        double amount = request.getAmount().doubleValue();
+        if (idempotencyKey != null) {
+            // A retry that missed the cache, e.g. after a restart, must not be
+            // rejected by the balance fast path below
+            Optional<Transaction> original = transactionRepo.findByAccountIdAndIdempotencyKey(
+                request.getFromAccountId(), idempotencyKey);
+            if (original.isPresent()) {
+                return original.get();
+            }
+        }
+        transferEngine.checkKnownBalance(request.getFromAccountId(), amount);
+
+        // The work may run more than once, so a refusal is noted by the run and counted here
+        boolean[] refused = new boolean[1];
+        try {
+            return transferEngine.execute(request.getFromAccountId(), request.getToAccountId(), () -> {
+                refused[0] = false;
+                if (idempotencyKey != null) {
+                    // Checked again under the stripe lock in case the original committed meanwhile
+                    Optional<Transaction> original = transactionRepo.findByAccountIdAndIdempotencyKey(
+                        request.getFromAccountId(), idempotencyKey);
+                    if (original.isPresent()) {
+                        return original.get();
+                    }
+                }
+                Map<Long, AccountSummary> accounts = ledger.positions(
+                    List.of(request.getFromAccountId(), request.getToAccountId()));
+                AccountSummary fromAccount = accounts.get(request.getFromAccountId());
+                AccountSummary toAccount = accounts.get(request.getToAccountId());
+                if (fromAccount == null || toAccount == null) {
+                    throw new RuntimeException("Account not found");
+                }
+            
+                // Check sufficient balance; the conditional debit enforces it again in the database
+                if (fromAccount.balance() < amount) {
+                    transferEngine.observeBalance(fromAccount.id(), fromAccount.balance());
+                    refused[0] = true;
+                    throw new RuntimeException(INSUFFICIENT_BALANCE);
+                }
+            
+                return ledger.postTransfer(fromAccount, toAccount, amount, request.getDescription(),
+                    LocalDateTime.now(), idempotencyKey, fingerprint);
+            });
+        } finally {
+            if (refused[0]) {
+                transferEngine.recordInsufficientBalance();
+            }
+        }
+    }
+
+    // Applies transfers in chunks, one commit per chunk. Each item is checked
+    // against the balances left by the items before it, and a rejected item does
+    // not affect the rest of its chunk. A chunk that fails to commit rolls back
+    // as a whole: its items are reported as rejected, while chunks already
+    // committed keep their results and later chunks are still attempted.
+    public List<TransferResult> transferBatch(List<TransferRequest> requests) {
+        List<TransferResult> results = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += batchChunkSize) {
+            int end = Math.min(start + batchChunkSize, requests.size());
+            try {
+                results.addAll(applyTransferChunk(requests.subList(start, end), start));
+            } catch (RuntimeException e) {
+                for (int i = start; i < end; i++) {
+                    results.add(TransferResult.rejected(i, "Not applied, chunk " + start + "-" + (end - 1)
+                        + " failed: " + e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<TransferResult> applyTransferChunk(List<TransferRequest> chunk, int offset) {
+        Set<Long> accountIds = new HashSet<>();
+        for (TransferRequest request : chunk) {
+            accountIds.add(request.getFromAccountId());
+            accountIds.add(request.getToAccountId());
+        }
+
+        List<TransferResult> chunkResults = transferEngine.executeAll(accountIds, () -> {
+            Map<Long, AccountSummary> accounts = ledger.positions(accountIds);
+            Map<Long, Double> balances = new HashMap<>();
+            for (AccountSummary account : accounts.values()) {
+                balances.put(account.id(), account.balance());
+            }
+
+            TransferResult[] results = new TransferResult[chunk.size()];
+            List<Transaction> entries = new ArrayList<>();
+            List<Integer> entryIndexes = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                TransferRequest request = chunk.get(i);
+                AccountSummary fromAccount = accounts.get(request.getFromAccountId());
+                AccountSummary toAccount = accounts.get(request.getToAccountId());
+                double amount = request.getAmount().doubleValue();
+
+                if (fromAccount == null || toAccount == null) {
+                    results[i] = TransferResult.rejected(offset + i, "Account not found");
+                } else if (fromAccount == toAccount) {
+                    results[i] = TransferResult.rejected(offset + i, "Cannot transfer to the same account");
+                } else if (balances.get(fromAccount.id()) < amount) {
+                    results[i] = TransferResult.rejected(offset + i, INSUFFICIENT_BALANCE);
+                } else {
+                    double fromBalance = balances.get(fromAccount.id());
+                    double toBalance = balances.get(toAccount.id());
+                    entries.addAll(ledger.transferLegs(fromAccount, toAccount, amount, fromBalance, toBalance,
+                        request.getDescription(), now));
+                    entryIndexes.add(i);
+                    balances.put(fromAccount.id(), fromBalance - amount);
+                    balances.put(toAccount.id(), toBalance + amount);
+                }
+            }
+
+            List<Transaction> posted = ledger.post(entries, accounts);
+            for (int r = 0; r < entryIndexes.size(); r++) {
+                int i = entryIndexes.get(r);
+                // Two legs per transfer; report the OUT leg
+                results[i] = TransferResult.completed(offset + i, posted.get(2 * r).getId());
+            }
+            return Arrays.asList(results);
+        });
+        // Counted from the committed results, since the work may run more than once
+        for (TransferResult result : chunkResults) {
+            if (INSUFFICIENT_BALANCE.equals(result.getError())) {
+                transferEngine.recordInsufficientBalance();
+            }
+        }
+        return chunkResults;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyBalance> getBalanceHistory(Long accountId, String from, String to) {
+        Account account = getAccountById(accountId);
+        LocalDate toDay = to != null ? LocalDate.parse(to) : LocalDate.now();
+        LocalDate fromDay = from != null ? LocalDate.parse(from) : toDay.minusDays(30);
+        return balanceRollups.history(account.getId(), fromDay, toDay);
+    }
+
+    public Map<String, Object> verifyLedger(Long accountId) {
+        return ledger.verify(accountId);
     }
 
     // Card Management
@@ -108,52 +337,166 @@ public class AccountService {
     }
 
     public Card issueCard(Long accountId, CardRequest cardRequest) {
-        Account account = getAccountById(accountId);
-        
-        Card card = Card.builder()
-            .account(account)
-            .cardNumber(generateCardNumber())
-            .cardType(cardRequest.getCardType())
-            .cvv(generateCVV())
-            .pin(cardRequest.getPin() != null ? cardRequest.getPin() : generatePIN())
-            .isActive(true)
-            .build();
-        
-        return cardRepo.save(card);
+        return writePipeline.execute(() -> {
+            Account account = loadAccount(accountId);
+            accountCache.invalidateAfterCommit(accountId);
+            
+            Card card = Card.builder()
+                .account(account)
+                .cardType(cardRequest.getCardType())
+                .isActive(true)
+                .build();
+            cardValidation.protect(card, idGenerator.nextCardNumber(), cardSecrets.cvv(),
+                cardRequest.getPin() != null ? cardRequest.getPin() : cardSecrets.pin());
+            
+            return cardRepo.save(card);
+        });
     }
 
     // Statement Generation
+    @Transactional(readOnly = true)
     public Map<String, Object> generateStatement(Long accountId, String startDate, String endDate) {
-        Account account = getAccountById(accountId);
-        List<Transaction> transactions;
-        
-        if (startDate != null && endDate != null) {
-            // Filter by date range - simplified for demo
-            transactions = getAccountTransactions(accountId);
+        // The balance must come from the same read transaction as the entries
+        Account account = accountRepo.findWithCardById(accountId)
+            .orElseThrow(() -> new RuntimeException("Account not found"));
+        LocalDateTime readAt = LocalDateTime.now();
+        LocalDateTime from = startDate != null ? parseStatementDate(startDate, false) : STATEMENT_EPOCH;
+        LocalDateTime to = endDate != null ? parseStatementDate(endDate, true) : readAt;
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("startDate must be before endDate");
+        }
+
+        List<Transaction> transactions = transactionRepo.findInPeriod(accountId, from, to);
+
+        double totalIn = 0;
+        double totalOut = 0;
+        for (Transaction transaction : transactions) {
+            if (isCredit(transaction)) {
+                totalIn += transaction.getAmount();
+            } else {
+                totalOut += transaction.getAmount();
+            }
+        }
+        double openingBalance;
+        double closingBalance;
+        if (isStartOfDay(from) && isStartOfDay(to)) {
+            // Whole-day periods are answered from the daily rollups
+            openingBalance = balanceRollups.balanceAtStartOf(account, from.toLocalDate());
+            closingBalance = balanceRollups.balanceAtStartOf(account, to.toLocalDate());
+        } else if (!to.isBefore(readAt)) {
+            // Everything this transaction can see was booked before it began
+            closingBalance = account.getBalance();
+            openingBalance = closingBalance - (totalIn - totalOut);
         } else {
-            // Get all transactions
-            transactions = getAccountTransactions(accountId);
+            // Rollups up to the end of to's day, less what was booked after to on that day
+            LocalDate nextDay = to.toLocalDate().plusDays(1);
+            closingBalance = balanceRollups.balanceAtStartOf(account, nextDay)
+                - transactionRepo.netMovementBetween(accountId, to, nextDay.atStartOfDay());
+            openingBalance = closingBalance - (totalIn - totalOut);
         }
         
         Map<String, Object> statement = new HashMap<>();
         statement.put("account", account);
         statement.put("transactions", transactions);
+        statement.put("periodStart", from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        statement.put("periodEnd", to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        statement.put("openingBalance", openingBalance);
+        statement.put("closingBalance", closingBalance);
+        statement.put("totalIn", totalIn);
+        statement.put("totalOut", totalOut);
         statement.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         statement.put("totalTransactions", transactions.size());
         
         return statement;
     }
 
+    // Writes the period a page at a time, flushing after each page, so memory use
+    // does not depend on how long the account's history is. Pages are separate
+    // keyset reads with no transaction open in between, so a slow client only
+    // slows its own download. The end of the period is fixed when the export
+    // starts and transfers are stamped when they are written, so later pages can
+    // only differ from one snapshot by transfers in flight at that moment.
+    public void exportStatement(Long accountId, String startDate, String endDate, boolean csv, Writer out) throws IOException {
+        getAccountById(accountId);
+        LocalDateTime from = startDate != null ? parseStatementDate(startDate, false) : STATEMENT_EPOCH;
+        LocalDateTime to = endDate != null ? parseStatementDate(endDate, true) : LocalDateTime.now();
+        Pageable fetch = PageRequest.of(0, EXPORT_PAGE_ROWS);
+
+        if (csv) {
+            out.write("id,timestamp,amount,direction,description\n");
+        }
+        List<StatementLine> page = transactionRepo.findFirstLinesInPeriod(accountId, from, to, fetch);
+        while (!page.isEmpty()) {
+            for (StatementLine line : page) {
+                if (csv) {
+                    out.write(line.getId() + "," + line.getTimestamp() + "," + line.getAmount() + ","
+                        + csvField(line.getDirection()) + "," + csvField(line.getDescription()) + "\n");
+                } else {
+                    out.write(objectMapper.writeValueAsString(line));
+                    out.write("\n");
+                }
+            }
+            out.flush();
+            if (page.size() < EXPORT_PAGE_ROWS) {
+                break;
+            }
+            StatementLine last = page.get(page.size() - 1);
+            page = transactionRepo.findLinesAfter(accountId, last.getTimestamp(), last.getId(), to, fetch);
+        }
+        out.flush();
+    }
+
     // Helper methods
-    private String generateCardNumber() {
-        return "4532" + String.format("%012d", System.currentTimeMillis() % 1000000000000L);
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // Accepts a plain date (an end date then covers that whole day) or a date-time
+    private LocalDateTime parseStatementDate(String value, boolean endOfRange) {
+        try {
+            LocalDate date = LocalDate.parse(value);
+            return endOfRange ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException invalid) {
+                throw new RuntimeException("Invalid date: " + value);
+            }
+        }
+    }
+
+    private boolean isStartOfDay(LocalDateTime time) {
+        return time.toLocalTime().equals(LocalTime.MIDNIGHT);
     }
 
-    private String generateCVV() {
-        return String.format("%03d", new Random().nextInt(1000));
+    private boolean isCredit(Transaction transaction) {
+        return "IN".equals(transaction.getDirection()) || "CREDIT".equals(transaction.getDirection());
     }
 
-    private String generatePIN() {
-        return String.format("%04d", new Random().nextInt(10000));
+    private String encodeCursor(Transaction transaction) {
+        String position = transaction.getTimestamp() + "|" + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
     }
+
+    // Any cursor that was not produced by encodeCursor is reported the same way
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new CursorPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private record CursorPosition(LocalDateTime timestamp, Long id) {}
 }
@@ -4,8 +4,13 @@ import com.bankservice.model.*;
 import com.bankservice.repository.*;
 import com.bankservice.dto.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -18,7 +23,24 @@ public class AuthService {
     private AccountRepository accountRepo;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHasher;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepo;
+    
+    @Autowired
+    private WritePipeline writePipeline;
+    
+    @Autowired
+    private IdGenerator idGenerator;
+    
+    @Autowired
+    private LedgerService ledger;
+    
+    @Value("${bank.auth.refresh-token.ttl-days:30}")
+    private long refreshTokenTtlDays;
+    
+    private final SecureRandom secureRandom = new SecureRandom();
 
     public AccountHolder signup(SignupRequest request) {
         // Check if email already exists
@@ -26,53 +48,121 @@ public class AuthService {
             throw new RuntimeException("Email already exists");
         }
         
-        // Create account holder
-        AccountHolder holder = AccountHolder.builder()
-            .name(request.getName())
-            .email(request.getEmail())
-            .password(passwordEncoder.encode(request.getPassword()))
-            .build();
+        // Hash before queueing so the writer thread never waits on BCrypt
+        String passwordHash = passwordHasher.encode(request.getPassword());
         
-        // Save holder first to get ID
-        holder = accountHolderRepo.save(holder);
-        
-        // Create default account if none specified
-        if (request.getAccounts() == null || request.getAccounts().isEmpty()) {
-            Account defaultAccount = Account.builder()
-                .type("CHECKING")
-                .number("ACC" + System.currentTimeMillis())
-                .primaryFlag(true)
-                .balance(0.0)
-                .holder(holder)
+        return writePipeline.execute(() -> {
+            if (accountHolderRepo.findByEmail(request.getEmail()).isPresent()) {
+                throw new RuntimeException("Email already exists");
+            }
+            
+            // Create account holder
+            AccountHolder holder = AccountHolder.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .password(passwordHash)
                 .build();
-            accountRepo.save(defaultAccount);
-        } else {
-            // Create specified accounts
-            List<Account> accounts = new ArrayList<>();
-            for (AccountDTO dto : request.getAccounts()) {
-                Account acc = Account.builder()
-                    .type(dto.getType())
-                    .number("ACC" + System.currentTimeMillis() + accounts.size())
-                    .primaryFlag(dto.isPrimaryFlag())
-                    .balance(dto.getBalance())
+            
+            // Save holder first to get ID
+            holder = accountHolderRepo.save(holder);
+            
+            // Create default account if none specified
+            if (request.getAccounts() == null || request.getAccounts().isEmpty()) {
+                Account defaultAccount = Account.builder()
+                    .type("CHECKING")
+                    .number(idGenerator.nextAccountNumber())
+                    .primaryFlag(true)
+                    .balance(0.0)
                     .holder(holder)
                     .build();
-                accounts.add(acc);
+                accountRepo.save(defaultAccount);
+            } else {
+                // Create specified accounts
+                List<Account> accounts = new ArrayList<>();
+                for (AccountDTO dto : request.getAccounts()) {
+                    Account acc = Account.builder()
+                        .type(dto.getType())
+                        .number(idGenerator.nextAccountNumber())
+                        .primaryFlag(dto.isPrimaryFlag())
+                        .balance(dto.getBalance())
+                        .holder(holder)
+                        .build();
+                    accounts.add(acc);
+                }
+                accountRepo.saveAll(accounts).forEach(ledger::postOpening);
             }
-            accountRepo.saveAll(accounts);
-        }
-        
-        return holder;
+            
+            return holder;
+        });
     }
 
     public AccountHolder authenticate(String email, String password) {
         AccountHolder holder = accountHolderRepo.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
-        if (!passwordEncoder.matches(password, holder.getPassword())) {
+        if (!passwordHasher.matches(password, holder.getPassword())) {
             throw new RuntimeException("Invalid password");
         }
         
+        // Transparently move the stored hash to the configured BCrypt cost
+        if (passwordHasher.needsRehash(holder.getPassword())) {
+            holder.setPassword(passwordHasher.encode(password));
+            AccountHolder rehashed = holder;
+            holder = writePipeline.execute(() -> accountHolderRepo.save(rehashed));
+        }
+        
         return holder;
     }
+
+    // Refresh tokens let clients get new access tokens without re-running BCrypt.
+    // They are random, single-use (rotated on every refresh) and stored hashed.
+    public String issueRefreshToken(AccountHolder holder) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        String tokenHash = hashToken(token);
+        writePipeline.run(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            refreshTokenRepo.save(RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .holder(holder)
+                .createdAt(now)
+                .expiresAt(now.plusDays(refreshTokenTtlDays))
+                .revoked(false)
+                .build());
+        });
+        return token;
+    }
+
+    public AccountHolder redeemRefreshToken(String token) {
+        String tokenHash = hashToken(token);
+        return writePipeline.execute(() -> {
+            RefreshToken stored = refreshTokenRepo.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+            if (stored.isRevoked() || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+                throw new RuntimeException("Invalid refresh token");
+            }
+            stored.setRevoked(true);
+            refreshTokenRepo.save(stored);
+            return stored.getHolder();
+        });
+    }
+
+    public void revokeRefreshToken(String token) {
+        String tokenHash = hashToken(token);
+        writePipeline.run(() -> refreshTokenRepo.findByTokenHash(tokenHash).ifPresent(stored -> {
+            stored.setRevoked(true);
+            refreshTokenRepo.save(stored);
+        }));
+    }
+
+    private String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.bankservice.service;
+
+import com.bankservice.model.*;
+import com.bankservice.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains one daily_balance row per account per day with movement. Callers
+ * record into it inside the transaction that moves the money, while holding the
+ * account's transfer stripe, so a row is never updated concurrently.
+ */
+@Service
+public class BalanceRollupService {
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepo;
+
+    // closingBalance must already include the movement being recorded. The
+    // day's row is updated in place; only the first movement of a day inserts.
+    public void record(Account account, LocalDate day, double closingBalance, double totalIn, double totalOut, int count) {
+        if (dailyBalanceRepo.addMovement(account.getId(), day, totalIn, totalOut, count, closingBalance) > 0) {
+            return;
+        }
+        dailyBalanceRepo.save(DailyBalance.builder()
+            .account(account)
+            .day(day)
+            .openingBalance(closingBalance - totalIn + totalOut)
+            .totalIn(totalIn)
+            .totalOut(totalOut)
+            .transactionCount(count)
+            .closingBalance(closingBalance)
+            .build());
+    }
+
+    // Balance at the start of the given day. Days without movement carry the
+    // previous closing balance forward; an account with no rollups at all has
+    // not moved since it was opened.
+    public double balanceAtStartOf(Account account, LocalDate day) {
+        Optional<DailyBalance> before = dailyBalanceRepo.findFirstByAccountIdAndDayBeforeOrderByDayDesc(account.getId(), day);
+        if (before.isPresent()) {
+            return before.get().getClosingBalance();
+        }
+        return dailyBalanceRepo.findFirstByAccountIdAndDayGreaterThanEqualOrderByDayAsc(account.getId(), day)
+            .map(DailyBalance::getOpeningBalance)
+            .orElse(account.getBalance());
+    }
+
+    public List<DailyBalance> history(Long accountId, LocalDate from, LocalDate to) {
+        return dailyBalanceRepo.findByAccountIdAndDayBetweenOrderByDayAsc(accountId, from, to);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bankservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA256 of card secrets under a server-side key, so a leaked card table
+ * cannot be reversed by enumerating the PAN space. CVV and PIN hashes are bound
+ * to their PAN, so equal codes on different cards do not produce equal hashes.
+ */
+@Component
+public class CardHasher {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    // Mac instances are not thread-safe; one per thread avoids a lock per hash
+    private final ThreadLocal<Mac> macs;
+
+    public CardHasher(@Value("${bank.cards.hash-key}") String key) {
+        this.key = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String panHash(String pan) {
+        return hash("pan:" + pan);
+    }
+
+    public String cvvHash(String pan, String cvv) {
+        return hash("cvv:" + pan + ":" + cvv);
+    }
+
+    public String pinHash(String pan, String pin) {
+        return hash("pin:" + pan + ":" + pin);
+    }
+
+    public static String mask(String pan) {
+        return "*".repeat(pan.length() - 4) + pan.substring(pan.length() - 4);
+    }
+
+    private String hash(String value) {
+        byte[] digest = macs.get().doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bankservice.service;
+
+import com.bankservice.dto.IssuedCard;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one bulk issuance. Updated by the issuing thread and read by
+ * status requests, so every field that changes is volatile or atomic.
+ */
+public class CardIssuanceJob {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    // Principal that submitted the job; nobody else may see it or collect its cards
+    private final String owner;
+    private final Long accountId;
+    private final String cardType;
+    private final int requested;
+    private final AtomicInteger issued = new AtomicInteger();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+    private List<IssuedCard> output = new ArrayList<>();
+
+    CardIssuanceJob(String id, String owner, Long accountId, String cardType, int requested) {
+        this.id = id;
+        this.owner = owner;
+        this.accountId = accountId;
+        this.cardType = cardType;
+        this.requested = requested;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getOwner() {
+        return owner;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getCardType() {
+        return cardType;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getIssued() {
+        return issued.get();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    @JsonIgnore
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    synchronized void recordChunk(List<IssuedCard> cards) {
+        output.addAll(cards);
+        issued.addAndGet(cards.size());
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    // Card secrets leave memory the first time they are collected
+    synchronized List<IssuedCard> takeOutput() {
+        List<IssuedCard> taken = output;
+        output = new ArrayList<>();
+        return taken;
+    }
+}
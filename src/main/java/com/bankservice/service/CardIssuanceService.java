@@ -0,0 +1,160 @@
+package com.bankservice.service;
+
+import com.bankservice.dto.BulkCardRequest;
+import com.bankservice.dto.IssuedCard;
+import com.bankservice.model.Account;
+import com.bankservice.model.Card;
+import com.bankservice.repository.AccountRepository;
+import com.bankservice.repository.CardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues cards in bulk as background jobs. Each chunk's numbers, CVVs and PINs
+ * come from the shared generators, are hashed in parallel, and are then
+ * written as one write-pipeline item, which Hibernate sends as JDBC batches.
+ * Jobs run one at a time so bulk issuance never takes over the writer.
+ *
+ * Jobs only issue cards on the submitter's own accounts. Finished jobs, with
+ * any card secrets nobody collected, are dropped an hour after they finish by
+ * a purge that runs every minute on its own thread.
+ */
+@Service
+public class CardIssuanceService {
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+    private static final long PURGE_INTERVAL_MINUTES = 1;
+
+    @Autowired
+    private AccountRepository accountRepo;
+    @Autowired
+    private CardRepository cardRepo;
+    @Autowired
+    private WritePipeline writePipeline;
+    @Autowired
+    private IdGenerator idGenerator;
+    @Autowired
+    private CardSecrets cardSecrets;
+    @Autowired
+    private CardValidationService cardValidation;
+    @Value("${bank.cards.bulk.chunk-size:500}")
+    private int chunkSize;
+    @Value("${bank.cards.bulk.max-count:50000}")
+    private int maxCount;
+
+    private final Map<String, CardIssuanceJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-issuance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Separate from the issuing thread so a long job cannot hold back the purge
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-issuance-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void startPurging() {
+        purger.scheduleWithFixedDelay(this::purgeFinishedJobs,
+            PURGE_INTERVAL_MINUTES, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public CardIssuanceJob submit(Long accountId, BulkCardRequest request, String owner) {
+        if (request.getCount() > maxCount) {
+            throw new RuntimeException("At most " + maxCount + " cards can be issued per job");
+        }
+        // Someone else's account is reported exactly like a missing one
+        if (!accountRepo.existsByIdAndHolderId(accountId, Long.valueOf(owner))) {
+            throw new RuntimeException("Account not found");
+        }
+
+        CardIssuanceJob job = new CardIssuanceJob(UUID.randomUUID().toString(), owner, accountId,
+            request.getCardType(), request.getCount());
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    // Someone else's job is reported exactly like a missing one
+    public CardIssuanceJob getJob(String jobId, String owner) {
+        CardIssuanceJob job = jobs.get(jobId);
+        if (job == null || !job.getOwner().equals(owner)) {
+            throw new NoSuchElementException("Job not found");
+        }
+        return job;
+    }
+
+    public List<IssuedCard> collectIssuedCards(String jobId, String owner) {
+        CardIssuanceJob job = getJob(jobId, owner);
+        if (!job.isFinished()) {
+            throw new RuntimeException("Job is still running");
+        }
+        return job.takeOutput();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(CardIssuanceJob job) {
+        job.start();
+        try {
+            for (int done = 0; done < job.getRequested(); done += chunkSize) {
+                issueChunk(job, Math.min(chunkSize, job.getRequested() - done));
+            }
+            job.complete();
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void issueChunk(CardIssuanceJob job, int size) {
+        List<PendingCard> pending = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Card card = Card.builder()
+                .cardType(job.getCardType())
+                .isActive(true)
+                .build();
+            pending.add(new PendingCard(card, idGenerator.nextCardNumber(), cardSecrets.cvv(), cardSecrets.pin()));
+        }
+        pending.parallelStream().forEach(p -> cardValidation.protect(p.card(), p.pan(), p.cvv(), p.pin()));
+
+        List<Card> cards = pending.stream().map(PendingCard::card).toList();
+        List<Card> saved = writePipeline.execute(() -> {
+            Account account = accountRepo.getReferenceById(job.getAccountId());
+            cards.forEach(card -> card.setAccount(account));
+            return cardRepo.saveAll(cards);
+        });
+
+        List<IssuedCard> issued = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            PendingCard p = pending.get(i);
+            issued.add(new IssuedCard(saved.get(i).getId(), p.pan(), p.cvv(), p.pin()));
+        }
+        job.recordChunk(issued);
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private record PendingCard(Card card, String pan, String cvv, String pin) {}
+}
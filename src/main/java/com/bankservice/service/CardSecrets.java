@@ -0,0 +1,31 @@
+package com.bankservice.service;
+
+import org.springframework.stereotype.Component;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * One shared source for card CVVs and PINs. The DRBG implementation is
+ * thread-safe without serialising callers, so parallel issuers do not queue
+ * behind a single lock.
+ */
+@Component
+public class CardSecrets {
+    private final SecureRandom random = newRandom();
+
+    public String cvv() {
+        return String.format("%03d", random.nextInt(1000));
+    }
+
+    public String pin() {
+        return String.format("%04d", random.nextInt(10000));
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
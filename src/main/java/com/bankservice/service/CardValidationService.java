@@ -0,0 +1,103 @@
+package com.bankservice.service;
+
+import com.bankservice.model.Card;
+import com.bankservice.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Validates card number and CVV against issued cards, which are looked up by
+ * keyed PAN hash.
+ *
+ * Card-testing bots mostly submit numbers that were never issued. Those are
+ * turned away before the database: first by the Luhn check, then by a Bloom
+ * filter of every issued PAN hash. The filter is rebuilt from the card table
+ * once the application is ready, and issuance adds to it as cards are created.
+ * Until the rebuild finishes every lookup goes to the database.
+ */
+@Service
+public class CardValidationService {
+    private final CardRepository cardRepo;
+    private final CardHasher cardHasher;
+    private final PanBloomFilter issued;
+    private volatile boolean ready;
+    private final Counter malformed;
+    private final Counter filtered;
+    private final Counter mismatched;
+    private final Counter accepted;
+
+    public CardValidationService(CardRepository cardRepo, CardHasher cardHasher, MeterRegistry meterRegistry,
+                                 @Value("${bank.cards.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${bank.cards.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.cardRepo = cardRepo;
+        this.cardHasher = cardHasher;
+        this.issued = new PanBloomFilter(expectedInsertions, falsePositiveRate);
+        this.malformed = resultCounter(meterRegistry, "malformed");
+        this.filtered = resultCounter(meterRegistry, "filtered");
+        this.mismatched = resultCounter(meterRegistry, "mismatched");
+        this.accepted = resultCounter(meterRegistry, "accepted");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<String> hashes = cardRepo.streamPanHashes()) {
+            hashes.forEach(issued::put);
+        }
+        ready = true;
+    }
+
+    // Stores only hashes and a masked number; the full PAN is handed back once
+    // on the issuing response and never persisted.
+    public Card protect(Card card, String pan, String cvv, String pin) {
+        String panHash = cardHasher.panHash(pan);
+        card.setCardNumber(CardHasher.mask(pan));
+        card.setPanHash(panHash);
+        card.setCvv(cardHasher.cvvHash(pan, cvv));
+        card.setPin(cardHasher.pinHash(pan, pin));
+        card.setIssuedPan(pan);
+        issued.put(panHash);
+        return card;
+    }
+
+    public Card validate(String pan, String cvv) {
+        if (pan == null || cvv == null || !IdGenerator.isLuhnValid(pan)) {
+            malformed.increment();
+            throw new RuntimeException("Invalid card details");
+        }
+        String panHash = cardHasher.panHash(pan);
+        if (ready && !issued.mightContain(panHash)) {
+            filtered.increment();
+            throw new RuntimeException("Invalid card details");
+        }
+
+        Optional<Card> card = cardRepo.findByPanHash(panHash)
+            .filter(Card::isActive)
+            .filter(c -> c.getExpirationDate() == null || !c.getExpirationDate().isBefore(LocalDate.now()));
+        if (card.isEmpty() || !MessageDigest.isEqual(
+                cardHasher.cvvHash(pan, cvv).getBytes(StandardCharsets.US_ASCII),
+                card.get().getCvv().getBytes(StandardCharsets.US_ASCII))) {
+            mismatched.increment();
+            throw new RuntimeException("Invalid card details");
+        }
+        accepted.increment();
+        return card.get();
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("card.validation")
+            .tag("result", result)
+            .description("Card validation attempts by outcome")
+            .register(meterRegistry);
+    }
+}
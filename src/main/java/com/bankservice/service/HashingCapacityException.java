@@ -0,0 +1,10 @@
+package com.bankservice.service;
+
+// Thrown when the password hashing pool is saturated; surfaced as 503
+public class HashingCapacityException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public HashingCapacityException(String message) {
+        super(message);
+    }
+}
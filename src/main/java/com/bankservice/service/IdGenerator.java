@@ -0,0 +1,89 @@
+package com.bankservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, node-aware identifiers for account and card numbers, generated
+ * in memory without locks or database round trips.
+ *
+ * An id packs milliseconds since 2024-01-01 (41 bits), the node id (5 bits)
+ * and a per-millisecond sequence (10 bits) into 56 bits, which always fits in
+ * 17 decimal digits. The time and sequence live in one AtomicLong advanced by
+ * CAS; when more than 1024 ids are taken in one millisecond the sequence simply
+ * carries into the time field, so callers never wait and ids stay unique and
+ * increasing.
+ */
+@Component
+public class IdGenerator {
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 10;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String CARD_IIN = "4";
+
+    private final long node;
+    private final AtomicLong lastTickAndSequence = new AtomicLong();
+
+    public IdGenerator(@Value("${bank.ids.node-id:0}") long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("bank.ids.node-id must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = lastTickAndSequence.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long next = Math.max(now, last + 1);
+            if (lastTickAndSequence.compareAndSet(last, next)) {
+                long tick = next >>> SEQUENCE_BITS;
+                return (tick << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String nextAccountNumber() {
+        return "ACC" + padded(nextId());
+    }
+
+    // 19-digit PAN: IIN, 17-digit id, Luhn check digit
+    public String nextCardNumber() {
+        String payload = CARD_IIN + padded(nextId());
+        return payload + luhnCheckDigit(payload);
+    }
+
+    private static String padded(long id) {
+        String digits = Long.toString(id);
+        return "0".repeat(17 - digits.length()) + digits;
+    }
+
+    public static int luhnCheckDigit(String payload) {
+        int sum = 0;
+        boolean doubleDigit = true;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int digit = payload.charAt(i) - '0';
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isLuhnValid(String number) {
+        if (number == null || number.length() < 2 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = number.length() - 1;
+        return luhnCheckDigit(number.substring(0, last)) == number.charAt(last) - '0';
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankservice.service;
+
+import com.bankservice.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Results of recently completed idempotent transfers, keyed by sender account
+ * and Idempotency-Key. This sits in front of the unique index on
+ * bank_transaction, so a retry is answered from memory without reaching the
+ * transfer locks or the write queue.
+ *
+ * Completed results are kept in an LRU bounded by max-entries, and each one
+ * expires after ttl-seconds. While the first request for a key is still
+ * running, later requests for that key wait on its result and do not start a
+ * second transfer. Failures are not remembered: the failed transfer rolled
+ * back, so it is safe to retry it.
+ */
+@Component
+public class IdempotencyCache {
+    private record Entry(Transaction transaction, long expiresAtMillis) {}
+
+    private final Map<String, Entry> completed;
+    private final Map<String, CompletableFuture<Transaction>> inFlight = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public IdempotencyCache(@Value("${bank.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${bank.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Transaction getOrCompute(String key, Supplier<Transaction> transfer) {
+        Transaction cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Transaction> mine = new CompletableFuture<>();
+        CompletableFuture<Transaction> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Another request may have finished between the lookup and claiming the key
+            Transaction result = get(key);
+            if (result == null) {
+                result = transfer.get();
+                put(key, result);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public synchronized int size() {
+        return completed.size();
+    }
+
+    private synchronized Transaction get(String key) {
+        Entry entry = completed.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            completed.remove(key);
+            return null;
+        }
+        return entry.transaction();
+    }
+
+    private synchronized void put(String key, Transaction transaction) {
+        completed.put(key, new Entry(transaction, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private Transaction await(CompletableFuture<Transaction> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for transfer");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        }
+    }
+}
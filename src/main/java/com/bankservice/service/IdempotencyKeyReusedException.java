@@ -0,0 +1,10 @@
+package com.bankservice.service;
+
+// Thrown when an Idempotency-Key comes back with a different request; surfaced as 422
+public class IdempotencyKeyReusedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
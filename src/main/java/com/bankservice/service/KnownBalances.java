@@ -0,0 +1,84 @@
+package com.bankservice.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Last committed balance seen per account, trusted only for a short TTL.
+ *
+ * Credits can land without passing through this process (another instance, or
+ * a path that never reports its balance), so a remembered balance may be
+ * stale. A balance older than the TTL is treated as unknown and the caller has
+ * to read the database, which bounds how long a credited account can be
+ * refused. A TTL of zero disables the fast path entirely.
+ *
+ * The map is trimmed like VerifiedTokenCache: on reaching max-entries, expired
+ * entries go first and arbitrary ones follow down to a 90% low-water mark, one
+ * trimming thread at a time.
+ */
+class KnownBalances {
+    private record Entry(double balance, long observedAtNanos) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final int lowWaterEntries;
+
+    KnownBalances(long ttlMillis, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.lowWaterEntries = maxEntries - Math.max(1, maxEntries / 10);
+    }
+
+    // The remembered balance, or null when unknown or older than the TTL
+    Double get(Long accountId) {
+        Entry entry = entries.get(accountId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.observedAtNanos() >= ttlNanos) {
+            entries.remove(accountId, entry);
+            return null;
+        }
+        return entry.balance();
+    }
+
+    void put(Long accountId, double balance) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(accountId, new Entry(balance, System.nanoTime()));
+    }
+
+    void forget(Long accountId) {
+        entries.remove(accountId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> now - entry.observedAtNanos() >= ttlNanos);
+            Iterator<Long> keys = entries.keySet().iterator();
+            while (entries.size() > lowWaterEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
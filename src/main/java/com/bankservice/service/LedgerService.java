@@ -0,0 +1,202 @@
+package com.bankservice.service;
+
+import com.bankservice.dto.AccountSummary;
+import com.bankservice.model.*;
+import com.bankservice.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Append-only, double-entry journal. Every movement is booked as entries on
+ * each account it touches (OUT on the sender, IN on the receiver, CREDIT for
+ * an opening balance), each carrying the account's running balance.
+ *
+ * Account.balance is a snapshot of the journal up to checkpointSequence, the
+ * id of the last entry folded into it. Posting inserts the entries and moves
+ * the snapshot forward with one relative UPDATE per account, so balance reads
+ * stay a single row lookup and the account row is never read back and
+ * rewritten. Entries are never updated or deleted; the balance can always be
+ * rebuilt from the last checkpoint by replaying the entries after it.
+ *
+ * A single transfer is posted with one conditional UPDATE that debits only
+ * while the balance covers the amount, one UPDATE for the credit and one
+ * batched insert of both legs. The accounts are read once, as a projection,
+ * for their numbers and running balances; no entity is loaded.
+ *
+ * Callers post inside a write transaction while holding the accounts' transfer
+ * stripes, so within this process balances read here cannot change underneath
+ * them. Every snapshot UPDATE also requires the account version that was read,
+ * so a write from anywhere else in between turns into a
+ * TransferConflictException instead of a lost update.
+ */
+@Service
+public class LedgerService {
+    @Autowired
+    private AccountRepository accountRepo;
+    @Autowired
+    private TransactionRepository transactionRepo;
+    @Autowired
+    private BalanceRollupService balanceRollups;
+    @Autowired
+    private TransferEngine transferEngine;
+    @Autowired
+    private AccountCache accountCache;
+
+    // Number and current balance of each account, keyed by id; missing ids are absent
+    public Map<Long, AccountSummary> positions(Collection<Long> accountIds) {
+        Map<Long, AccountSummary> positions = new HashMap<>();
+        for (AccountSummary summary : accountRepo.findSummariesByIds(accountIds)) {
+            positions.put(summary.id(), summary);
+        }
+        return positions;
+    }
+
+    // Both legs of a transfer, OUT first; balances are the ones before the transfer
+    public List<Transaction> transferLegs(AccountSummary fromAccount, AccountSummary toAccount, double amount,
+                                          double fromBalance, double toBalance,
+                                          String description, LocalDateTime timestamp) {
+        Transaction out = Transaction.builder()
+            .account(accountRepo.getReferenceById(fromAccount.id()))
+            .amount(amount)
+            .direction("OUT")
+            .description("Transfer to " + toAccount.number() + ": " + description)
+            .balanceAfter(fromBalance - amount)
+            .timestamp(timestamp)
+            .build();
+        Transaction in = Transaction.builder()
+            .account(accountRepo.getReferenceById(toAccount.id()))
+            .amount(amount)
+            .direction("IN")
+            .description("Transfer from " + fromAccount.number() + ": " + description)
+            .balanceAfter(toBalance + amount)
+            .timestamp(timestamp)
+            .build();
+        return List.of(out, in);
+    }
+
+    // Books one transfer and returns its OUT leg. The legs get their ids when
+    // saved but are only inserted at commit, so a refused debit writes nothing.
+    public Transaction postTransfer(AccountSummary fromAccount, AccountSummary toAccount, double amount,
+                                    String description, LocalDateTime timestamp, String idempotencyKey,
+                                    String idempotencyFingerprint) {
+        List<Transaction> legs = transferLegs(fromAccount, toAccount, amount,
+            fromAccount.balance(), toAccount.balance(), description, timestamp);
+        Transaction out = legs.get(0);
+        Transaction in = legs.get(1);
+        out.setIdempotencyKey(idempotencyKey);
+        out.setIdempotencyFingerprint(idempotencyFingerprint);
+        transactionRepo.saveAll(legs);
+
+        // The balance was checked against the same read, so a miss means the row moved on
+        if (accountRepo.debitIfCovered(fromAccount.id(), amount, out.getId(), fromAccount.version()) == 0) {
+            throw conflict(fromAccount.id());
+        }
+        if (accountRepo.advanceSnapshot(toAccount.id(), amount, in.getId(), toAccount.version()) == 0) {
+            throw conflict(toAccount.id());
+        }
+
+        afterPosting(out.getAccount(), out, 0, amount, 1);
+        afterPosting(in.getAccount(), in, amount, 0, 1);
+        return out;
+    }
+
+    // Inserts the entries in order and advances each touched account's snapshot
+    // to its last entry, at the version in positions. Returns the saved entries
+    // in the order given.
+    public List<Transaction> post(List<Transaction> entries, Map<Long, AccountSummary> positions) {
+        List<Transaction> saved = transactionRepo.saveAll(entries);
+
+        Map<Long, Posting> postings = new LinkedHashMap<>();
+        for (Transaction entry : saved) {
+            Posting posting = postings.computeIfAbsent(entry.getAccount().getId(), id -> new Posting(entry.getAccount()));
+            if (isCredit(entry)) {
+                posting.totalIn += entry.getAmount();
+            } else {
+                posting.totalOut += entry.getAmount();
+            }
+            posting.count++;
+            posting.last = entry;
+        }
+
+        for (Posting posting : postings.values()) {
+            Long accountId = posting.account.getId();
+            if (accountRepo.advanceSnapshot(accountId, posting.totalIn - posting.totalOut, posting.last.getId(),
+                    positions.get(accountId).version()) == 0) {
+                throw conflict(accountId);
+            }
+            afterPosting(posting.account, posting.last, posting.totalIn, posting.totalOut, posting.count);
+        }
+        return saved;
+    }
+
+    // Books the initial balance of a freshly saved account as its first entry.
+    // The snapshot already holds that balance, so only the checkpoint moves.
+    public void postOpening(Account account) {
+        if (account.getBalance() == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Transaction opening = transactionRepo.save(Transaction.builder()
+            .account(account)
+            .amount(account.getBalance())
+            .direction("CREDIT")
+            .description("Opening balance")
+            .balanceAfter(account.getBalance())
+            .timestamp(now)
+            .build());
+        account.setCheckpointSequence(opening.getId());
+        balanceRollups.record(account, now.toLocalDate(), account.getBalance(), account.getBalance(), 0, 1);
+    }
+
+    // Rebuilds the balance from the journal: the running balance at the
+    // checkpoint plus every entry booked after it.
+    @Transactional(readOnly = true)
+    public Map<String, Object> verify(Long accountId) {
+        Account account = accountRepo.findById(accountId)
+            .orElseThrow(() -> new RuntimeException("Account not found"));
+        long checkpoint = account.getCheckpointSequence();
+        double atCheckpoint = checkpoint == 0 ? 0.0 : transactionRepo.findById(checkpoint)
+            .map(Transaction::getBalanceAfter)
+            .orElseThrow(() -> new RuntimeException("Checkpoint entry missing"));
+        double journalBalance = atCheckpoint + transactionRepo.netMovementAfter(accountId, checkpoint);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("accountId", accountId);
+        result.put("snapshotBalance", account.getBalance());
+        result.put("checkpointSequence", checkpoint);
+        result.put("journalBalance", journalBalance);
+        result.put("consistent", Math.abs(journalBalance - account.getBalance()) < 0.000001);
+        return result;
+    }
+
+    // Bookkeeping once an account's snapshot has moved to its last entry
+    private void afterPosting(Account account, Transaction last, double totalIn, double totalOut, int count) {
+        double closing = last.getBalanceAfter();
+        transferEngine.recordBalance(account.getId(), closing);
+        accountCache.invalidateAfterCommit(account.getId());
+        balanceRollups.record(account, last.getTimestamp().toLocalDate(), closing, totalIn, totalOut, count);
+    }
+
+    private TransferConflictException conflict(Long accountId) {
+        return new TransferConflictException(accountId, "Account " + accountId + " was modified concurrently, retry the transfer");
+    }
+
+    private boolean isCredit(Transaction entry) {
+        return "IN".equals(entry.getDirection()) || "CREDIT".equals(entry.getDirection());
+    }
+
+    private static class Posting {
+        final Account account;
+        double totalIn;
+        double totalOut;
+        int count;
+        Transaction last;
+
+        Posting(Account account) {
+            this.account = account;
+        }
+    }
+}
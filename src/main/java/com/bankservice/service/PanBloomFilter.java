@@ -0,0 +1,44 @@
+package com.bankservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over PAN hashes. A miss means the card was never issued; a hit
+ * only means it may have been. Bits are set with CAS, so issuance and lookups
+ * never lock. Bit positions come from the keyed PAN hash itself, so callers
+ * cannot choose inputs that land on set bits.
+ */
+class PanBloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    PanBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    void put(String panHash) {
+        long h1 = Long.parseUnsignedLong(panHash.substring(0, 16), 16);
+        long h2 = Long.parseUnsignedLong(panHash.substring(16, 32), 16);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            bits.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    boolean mightContain(String panHash) {
+        long h1 = Long.parseUnsignedLong(panHash.substring(0, 16), 16);
+        long h2 = Long.parseUnsignedLong(panHash.substring(16, 32), 16);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.bankservice.service;
+
+// Thrown when SQLite reports SQLITE_BUSY; nothing was written, so it is retried, then surfaced as 503
+public class StorageBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StorageBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
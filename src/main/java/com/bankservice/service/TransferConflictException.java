@@ -0,0 +1,17 @@
+package com.bankservice.service;
+
+// Thrown when an account changed between reading and writing it; retried, then surfaced as 409
+public class TransferConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Long accountId;
+
+    public TransferConflictException(Long accountId, String message) {
+        super(message);
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+}
@@ -0,0 +1,276 @@
+package com.bankservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes money movement per account instead of per database.
+ *
+ * Each account id hashes onto one of a fixed number of lock stripes. A transfer
+ * takes the stripes of both accounts in ascending stripe order, so two transfers
+ * can never wait on each other in a cycle, and transfers between unrelated
+ * accounts proceed in parallel. The work is committed through the WritePipeline
+ * while the stripes are held, so no other transfer can observe a half-applied
+ * move, and transfers on different stripes can share one group commit.
+ *
+ * The engine also remembers recently committed balances of the accounts it has
+ * touched, which lets obviously insufficient transfers be rejected before any
+ * lock or database work. Only balances younger than known-balance.ttl-ms are
+ * trusted, since credits applied elsewhere never reach this map, and the map
+ * holds at most known-balance.max-entries accounts.
+ *
+ * Every write is timed in four phases under transfer.phase: waiting for the
+ * stripes, waiting in the write queue, running the work against the database,
+ * and waiting for the group commit to return.
+ *
+ * Stripes only serialize writers in this process. Balance writes are also
+ * versioned, and work that hits a concurrent change elsewhere fails with
+ * TransferConflictException; it is retried with jittered exponential backoff,
+ * outside the stripes, up to max-attempts times. Conflicts are counted per
+ * account under transfer.conflicts to show which accounts are hot. A write
+ * refused with SQLITE_BUSY (StorageBusyException) is retried the same way.
+ */
+@Component
+public class TransferEngine {
+    private static final int STRIPES = 1024;
+    private static final String UNTRACKED_ACCOUNT = "other";
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final KnownBalances committedBalances;
+    private final WritePipeline writePipeline;
+    private final PhaseTimers transferTimers;
+    private final PhaseTimers batchTimers;
+    private final Counter insufficientBalance;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, Counter> accountConflicts = new ConcurrentHashMap<>();
+    private final Counter untrackedConflicts;
+    private final Counter exhaustedRetries;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final int maxTrackedAccounts;
+
+    @Autowired
+    public TransferEngine(WritePipeline writePipeline, MeterRegistry meterRegistry,
+                          @Value("${bank.transfer.retry.max-attempts:3}") int maxAttempts,
+                          @Value("${bank.transfer.retry.backoff-ms:5}") long backoffMillis,
+                          @Value("${bank.transfer.conflicts.max-tracked-accounts:1000}") int maxTrackedAccounts,
+                          @Value("${bank.transfer.known-balance.ttl-ms:1000}") long knownBalanceTtlMillis,
+                          @Value("${bank.transfer.known-balance.max-entries:10000}") int knownBalanceMaxEntries) {
+        this.writePipeline = writePipeline;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        this.maxTrackedAccounts = maxTrackedAccounts;
+        this.committedBalances = new KnownBalances(knownBalanceTtlMillis, knownBalanceMaxEntries);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.transferTimers = new PhaseTimers(meterRegistry, "single");
+        this.batchTimers = new PhaseTimers(meterRegistry, "batch");
+        this.insufficientBalance = Counter.builder("transfer.rejected")
+            .tag("reason", "insufficient_balance")
+            .description("Transfers refused because the sender's balance was too low")
+            .register(meterRegistry);
+        this.untrackedConflicts = conflictCounter(UNTRACKED_ACCOUNT);
+        this.exhaustedRetries = Counter.builder("transfer.conflicts.exhausted")
+            .description("Transfers that still conflicted after the last retry")
+            .register(meterRegistry);
+    }
+
+    public <T> T execute(Long fromAccountId, Long toAccountId, Supplier<T> work) {
+        if (fromAccountId.equals(toAccountId)) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
+        return withRetry(() -> lockAndWrite(List.of(fromAccountId, toAccountId), work, transferTimers));
+    }
+
+    // Locks every stripe covering the given accounts, lowest stripe first, and runs
+    // the work as one write. Used by batches touching many accounts.
+    public <T> T executeAll(Collection<Long> accountIds, Supplier<T> work) {
+        return withRetry(() -> lockAndWrite(accountIds, work, batchTimers));
+    }
+
+    private <T> T withRetry(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (TransferConflictException e) {
+                recordConflict(e.getAccountId());
+                if (attempt >= maxAttempts) {
+                    exhaustedRetries.increment();
+                    throw e;
+                }
+                backOff(attempt);
+            } catch (StorageBusyException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Full jitter: a random pause of up to backoff * 2^(attempt - 1)
+    private void backOff(int attempt) {
+        long ceiling = backoffNanos << Math.min(attempt - 1, 16);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying transfer");
+        }
+    }
+
+    // One series per account, up to max-tracked-accounts; the rest share "other"
+    private void recordConflict(Long accountId) {
+        Counter counter = accountConflicts.get(accountId);
+        if (counter == null) {
+            counter = accountConflicts.size() < maxTrackedAccounts
+                ? accountConflicts.computeIfAbsent(accountId, id -> conflictCounter(id.toString()))
+                : untrackedConflicts;
+        }
+        counter.increment();
+    }
+
+    private Counter conflictCounter(String account) {
+        return Counter.builder("transfer.conflicts")
+            .tag("account", account)
+            .description("Transfer attempts that found the account changed since it was read")
+            .register(meterRegistry);
+    }
+
+    private <T> T lockAndWrite(Collection<Long> accountIds, Supplier<T> work, PhaseTimers timers) {
+        int[] held = accountIds.stream()
+            .mapToInt(this::stripeOf)
+            .distinct()
+            .sorted()
+            .toArray();
+
+        int locked = 0;
+        long lockStart = System.nanoTime();
+        try {
+            for (int stripe : held) {
+                stripes[stripe].lock();
+                locked++;
+            }
+            long queued = System.nanoTime();
+            timers.lockWait.record(queued - lockStart, TimeUnit.NANOSECONDS);
+
+            // Written on the writer thread, read here once execute returns. The pipeline
+            // may run the work twice, so it only notes the times of its latest run and
+            // every phase is recorded once, here.
+            long[] workTimes = new long[2];
+            boolean committed = false;
+            try {
+                T result = writePipeline.execute(() -> {
+                    workTimes[0] = System.nanoTime();
+                    try {
+                        return work.get();
+                    } finally {
+                        workTimes[1] = System.nanoTime();
+                    }
+                });
+                committed = true;
+                return result;
+            } finally {
+                long done = System.nanoTime();
+                if (workTimes[0] != 0) {
+                    timers.queue.record(workTimes[0] - queued, TimeUnit.NANOSECONDS);
+                    timers.db.record(workTimes[1] - workTimes[0], TimeUnit.NANOSECONDS);
+                    if (committed) {
+                        timers.commit.record(done - workTimes[1], TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[held[i]].unlock();
+            }
+        }
+    }
+
+    // Fast path: reject without touching the database when a recently committed
+    // balance is already too low. Unknown or stale accounts always fall through.
+    public void checkKnownBalance(Long accountId, double amount) {
+        Double balance = committedBalances.get(accountId);
+        if (balance != null && balance < amount) {
+            recordInsufficientBalance();
+            throw new RuntimeException("Insufficient balance");
+        }
+    }
+
+    // Counts a transfer refused for lack of funds, whichever path refused it
+    public void recordInsufficientBalance() {
+        insufficientBalance.increment();
+    }
+
+    // For balances read, not written, while the account's stripe is held.
+    public void observeBalance(Long accountId, double balance) {
+        committedBalances.put(accountId, balance);
+    }
+
+    // Publishes the balance once the surrounding transaction commits; a rollback
+    // forgets the account so the next transfer re-reads it from the database.
+    public void recordBalance(Long accountId, double balance) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committedBalances.put(accountId, balance);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committedBalances.put(accountId, balance);
+                } else {
+                    committedBalances.forget(accountId);
+                }
+            }
+        });
+    }
+
+    private int stripeOf(Long accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    private static class PhaseTimers {
+        final Timer lockWait;
+        final Timer queue;
+        final Timer db;
+        final Timer commit;
+
+        PhaseTimers(MeterRegistry meterRegistry, String operation) {
+            this.lockWait = phaseTimer(meterRegistry, operation, "lock_wait");
+            this.queue = phaseTimer(meterRegistry, operation, "queue");
+            this.db = phaseTimer(meterRegistry, operation, "db");
+            this.commit = phaseTimer(meterRegistry, operation, "commit");
+        }
+
+        private static Timer phaseTimer(MeterRegistry meterRegistry, String operation, String phase) {
+            return Timer.builder("transfer.phase")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .description("Time a transfer spends in each phase of its write")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.bankservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer group commit for SQLite, which only ever admits one writer.
+ *
+ * Callers hand their unit of work to {@link #execute} and block. One writer
+ * thread drains the queue into groups of up to max-items, waiting at most
+ * max-wait-micros for a group to fill, runs the whole group in a single
+ * database transaction and completes every caller once that commit returns.
+ * Many writes therefore share one fsync while each caller still only returns
+ * after its write is durable.
+ *
+ * Each item of a group runs behind its own savepoint and is flushed before the
+ * next one starts. An item that throws, such as a rejected transfer, is rolled
+ * back to its savepoint and fails only its own caller; the rest of the group
+ * still commits together. Only the entities that item brought into or changed
+ * in the shared persistence context are evicted or re-read, so entities held by
+ * earlier items stay managed. Only when the transaction itself is lost (a
+ * failed flush, savepoint or commit) is the group rolled back and each item
+ * re-run in its own transaction.
+ *
+ * Work may therefore run more than once. Anything it does outside the
+ * transaction must be safe to repeat, or be done by the caller once execute
+ * returns, or be registered as a transaction synchronization, which only the
+ * run that commits completes with STATUS_COMMITTED.
+ *
+ * SQLITE_BUSY from any of these is reported as StorageBusyException, since
+ * nothing was written and the caller may simply try again.
+ */
+@Service
+public class WritePipeline {
+    // Primary result code; extended codes such as SQLITE_BUSY_SNAPSHOT keep it in the low byte
+    private static final int SQLITE_BUSY = 5;
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final BlockingQueue<WriteTask<?>> queue;
+    private final int maxItems;
+    private final long maxWaitNanos;
+    private volatile boolean running;
+    private Thread writer;
+
+    public WritePipeline(PlatformTransactionManager transactionManager,
+                         EntityManager entityManager,
+                         @Value("${bank.write.group.max-items:64}") int maxItems,
+                         @Value("${bank.write.group.max-wait-micros:200}") long maxWaitMicros,
+                         @Value("${bank.write.queue-capacity:10000}") int queueCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.maxItems = maxItems;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "sqlite-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        writer.interrupt();
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        // Work submitted from the writer itself (nested writes) runs inline
+        if (Thread.currentThread() == writer) {
+            return work.get();
+        }
+
+        WriteTask<T> task = new WriteTask<>(work);
+        try {
+            queue.put(task);
+            return task.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for write to commit");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<WriteTask<?>> group = new ArrayList<>(maxItems);
+        while (running) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxItems) {
+                    long remaining = deadline - System.nanoTime();
+                    WriteTask<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // commitGroup completes every task itself; this only guards the loop
+                for (WriteTask<?> task : group) {
+                    task.result.completeExceptionally(e);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+        for (WriteTask<?> task : queue) {
+            task.result.completeExceptionally(new IllegalStateException("Write pipeline stopped"));
+        }
+    }
+
+    private void commitGroup(List<WriteTask<?>> group) {
+        if (group.size() == 1) {
+            commitAlone(group.get(0));
+            return;
+        }
+        Object[] results = new Object[group.size()];
+        RuntimeException[] failures = new RuntimeException[group.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < group.size(); i++) {
+                    try {
+                        results[i] = runToSavepoint(group.get(i), status);
+                    } catch (RolledBackTask e) {
+                        failures[i] = e.failure;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            group.forEach(this::commitAlone);
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            if (failures[i] != null) {
+                group.get(i).result.completeExceptionally(translate(failures[i]));
+            } else {
+                complete(group.get(i), results[i]);
+            }
+        }
+    }
+
+    // Runs one item of a group. If it throws, only its own statements and
+    // transaction callbacks are undone; a failure that has already doomed the
+    // transaction propagates and aborts the whole group.
+    private Object runToSavepoint(WriteTask<?> task, TransactionStatus status) {
+        // Savepoints need a JPA transaction; without one there is nothing to undo
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return task.work.get();
+            } catch (RuntimeException e) {
+                throw new RolledBackTask(e);
+            }
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        List<TransactionSynchronization> registered = TransactionSynchronizationManager.getSynchronizations();
+        Set<Object> managedBefore = managedEntities(session);
+        try {
+            Object result = task.work.get();
+            // Flush here so a failing statement is charged to this item, not the commit
+            session.flush();
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return result;
+        } catch (RuntimeException e) {
+            if (status.isRollbackOnly()) {
+                throw e;
+            }
+            session.doWork(connection -> connection.rollback(savepoint));
+            // Entities the item changed in memory must not be flushed later
+            undoInMemory(session, managedBefore);
+            discardSynchronizationsSince(registered);
+            throw new RolledBackTask(e);
+        }
+    }
+
+    private static Set<Object> managedEntities(Session session) {
+        Set<Object> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Object, EntityEntry> entry : session.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            managed.add(entry.getKey());
+        }
+        return managed;
+    }
+
+    // Brings the persistence context back to where the savepoint left the database.
+    // Earlier items were flushed before this one started, so every pending action
+    // is this item's; entities it brought in are evicted, and entities that were
+    // already managed are re-read only if it changed or removed them.
+    private static void undoInMemory(Session session, Set<Object> managedBefore) {
+        SessionImplementor sessionImpl = session.unwrap(SessionImplementor.class);
+        sessionImpl.getActionQueue().clear();
+        for (Map.Entry<Object, EntityEntry> managed : sessionImpl.getPersistenceContextInternal()
+                .reentrantSafeEntityEntries()) {
+            Object entity = managed.getKey();
+            EntityEntry entry = managed.getValue();
+            if (!session.contains(entity)) {
+                // Already detached by an eviction cascading from an earlier entry
+                continue;
+            }
+            if (!managedBefore.contains(entity) || entry.getStatus() != Status.MANAGED) {
+                session.evict(entity);
+            } else if (entry.getLoadedState() != null && entry.getPersister().findDirty(
+                    entry.getPersister().getValues(entity), entry.getLoadedState(), entity, sessionImpl) != null) {
+                session.refresh(entity);
+            }
+        }
+    }
+
+    // Callbacks the rolled-back item registered see a rollback now instead of the group's commit
+    private void discardSynchronizationsSince(List<TransactionSynchronization> registered) {
+        List<TransactionSynchronization> added = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        added.removeAll(registered);
+        if (added.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        registered.forEach(TransactionSynchronizationManager::registerSynchronization);
+        TransactionSynchronizationUtils.invokeAfterCompletion(added, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    private <T> void commitAlone(WriteTask<T> task) {
+        try {
+            task.result.complete(transactionTemplate.execute(status -> task.work.get()));
+        } catch (RuntimeException e) {
+            task.result.completeExceptionally(translate(e));
+        }
+    }
+
+    private static RuntimeException translate(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && (sql.getErrorCode() & 0xff) == SQLITE_BUSY) {
+                return new StorageBusyException("Database is busy, retry shortly", e);
+            }
+        }
+        return e;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void complete(WriteTask<T> task, Object result) {
+        task.result.complete((T) result);
+    }
+
+    // Carries an item's own failure out of the group transaction without rolling it back
+    private static class RolledBackTask extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final RuntimeException failure;
+
+        RolledBackTask(RuntimeException failure) {
+            super(failure.getMessage(), failure, false, false);
+            this.failure = failure;
+        }
+    }
+
+    private static class WriteTask<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        WriteTask(Supplier<T> work) {
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankservice.config;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test setup against a SQLite file in WAL mode, as in production. With
+ * jdbc:sqlite::memory: every pooled connection opens its own empty database,
+ * so tests that write through more than one connection, or that need two
+ * connections to contend for the single SQLite writer, extend this instead.
+ */
+public abstract class FileDatabaseTestConfiguration extends BaseTestConfiguration {
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("bank-test");
+        directory.toFile().deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + directory.resolve("bank.db"));
+    }
+}
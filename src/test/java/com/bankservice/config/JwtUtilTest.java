@@ -0,0 +1,65 @@
+package com.bankservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtUtil token verification and the verified-token cache.
+ */
+public class JwtUtilTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(meterRegistry, 100);
+    }
+
+    @Test
+    void testExtractSubject_RepeatTokenServedFromCache() {
+        // Given
+        String token = jwtUtil.generateToken("42");
+
+        // When
+        String first = jwtUtil.extractSubject(token);
+        String second = jwtUtil.extractSubject(token);
+
+        // Then
+        assertEquals("42", first);
+        assertEquals("42", second);
+        assertEquals(1.0, meterRegistry.get("jwt.verified.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.verified.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testExtractSubject_TamperedTokenRejected() {
+        // Given
+        String token = jwtUtil.generateToken("42");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When / Then
+        assertNull(jwtUtil.extractSubject(tampered));
+        assertNull(jwtUtil.extractSubject(tampered));
+        assertEquals("42", jwtUtil.extractSubject(token));
+    }
+
+    @Test
+    void testExtractSubject_FullCacheTrimmedToLowWaterMark() {
+        // Given - A cache of 100 filled to capacity
+        for (int i = 0; i < 100; i++) {
+            jwtUtil.extractSubject(jwtUtil.generateToken("user-" + i));
+        }
+        assertEquals(100.0, meterRegistry.get("jwt.verified.cache.size").gauge().value());
+
+        // When
+        jwtUtil.extractSubject(jwtUtil.generateToken("one-more"));
+
+        // Then - Trimmed once to 90, then the new token added
+        assertEquals(91.0, meterRegistry.get("jwt.verified.cache.size").gauge().value());
+    }
+}
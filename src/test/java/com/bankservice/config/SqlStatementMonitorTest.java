@@ -0,0 +1,78 @@
+package com.bankservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for statement shape normalization and per-shape aggregation.
+ */
+public class SqlStatementMonitorTest {
+
+    @Test
+    void testShapeOf_LiteralsAndInListsCollapse() {
+        // When
+        String first = SqlStatementMonitor.shapeOf("select a1_0.id from account a1_0 where a1_0.id in (?,?,?) and a1_0.type='CHECKING'");
+        String second = SqlStatementMonitor.shapeOf("select a1_0.id  from account a1_0\n where a1_0.id in (?, ?) and a1_0.type='SAVINGS'");
+
+        // Then - Aliases survive, values and list lengths do not
+        assertEquals("select a1_0.id from account a1_0 where a1_0.id in (?...) and a1_0.type=?", first);
+        assertEquals(first, second);
+        assertEquals("select * from t where x > ? limit ?", SqlStatementMonitor.shapeOf("select * from t where x > 10.5 limit 20"));
+    }
+
+    @Test
+    void testTop_OrdersByTotalTime() {
+        // Given
+        SqlStatementMonitor monitor = new SqlStatementMonitor(1_000, 0.0, 10, 100);
+
+        // When
+        monitor.record("select 1", 1_000_000, false);
+        monitor.record("select 2", 1_000_000, false);
+        monitor.record("update account set balance=balance+? where id=?", 5_000_000, false);
+
+        // Then
+        List<Map<String, Object>> top = monitor.top(1);
+        assertEquals(1, top.size());
+        assertEquals("update account set balance=balance+? where id=?", top.get(0).get("shape"));
+        assertEquals(1L, top.get(0).get("count"));
+        assertEquals(5.0, top.get(0).get("maxMs"));
+        assertEquals(2L, monitor.top(10).get(1).get("count"));
+    }
+
+    @Test
+    void testRecord_ShapeCountIsBounded() {
+        // Given
+        SqlStatementMonitor monitor = new SqlStatementMonitor(1_000, 0.0, 2, 100);
+
+        // When
+        monitor.record("select a from t1", 1, false);
+        monitor.record("select b from t2", 1, false);
+        monitor.record("select c from t3", 1, false);
+
+        // Then
+        assertEquals(3, monitor.top(10).size());
+        assertTrue(monitor.top(10).stream().anyMatch(row -> "(other statements)".equals(row.get("shape"))));
+    }
+
+    @Test
+    void testPreparedShape_NormalizedOncePerSql() {
+        // Given
+        SqlStatementMonitor monitor = new SqlStatementMonitor(1_000, 0.0, 10, 1);
+        String sql = "select a1_0.id from account a1_0 where a1_0.id in (?,?)";
+
+        // When
+        String first = monitor.preparedShape(sql);
+        String second = monitor.preparedShape(sql);
+        String beyondBound = monitor.preparedShape("select 1");
+
+        // Then - The cached string is reused; SQL past the bound is still normalized
+        assertSame(first, second);
+        assertEquals("select a1_0.id from account a1_0 where a1_0.id in (?...)", first);
+        assertEquals("select ?", beyondBound);
+        assertNotSame(beyondBound, monitor.preparedShape("select 1"));
+    }
+}
@@ -1,6 +1,6 @@
 package com.bankservice.controller;
 
-import com.bankservice.config.BaseTestConfiguration;
+import com.bankservice.config.FileDatabaseTestConfiguration;
 import com.bankservice.dto.AccountDTO;
 import com.bankservice.dto.SignupRequest;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -18,6 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,7 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Integration tests for AccountController endpoints.
  * Tests account management functionality including getting accounts and creating new ones.
  */
-public class AccountControllerTest extends BaseTestConfiguration {
+public class AccountControllerTest extends FileDatabaseTestConfiguration {
 
     @LocalServerPort
     private int port;
@@ -45,7 +46,7 @@ public class AccountControllerTest extends BaseTestConfiguration {
         headers.setContentType(MediaType.APPLICATION_JSON);
         
         // Create a user and get auth token for protected endpoints
-        authToken = createUserAndGetToken();
+        authToken = createUserAndGetToken(uniqueEmail("account.test"));
         headers.setBearerAuth(authToken);
     }
 
@@ -75,6 +76,169 @@ public class AccountControllerTest extends BaseTestConfiguration {
         assertTrue(firstAccount.has("primaryFlag"));
     }
 
+    @Test
+    void testGetUserAccounts_OnlyCallersAccounts() throws Exception {
+        // Given - Another holder in the same database
+        createUserAndGetToken(uniqueEmail("other.holder"));
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/accounts"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - Just the caller's one account, without its row version
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode accounts = objectMapper.readTree(response.getBody());
+        assertEquals(1, accounts.size());
+        assertFalse(accounts.get(0).has("version"));
+    }
+
+    @Test
+    void testGetMyAccounts_PagedSummaries() throws Exception {
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/me/accounts?size=1000"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - Only the caller's accounts, as column projections, capped page size
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode page = objectMapper.readTree(response.getBody());
+        assertEquals(100, page.get("size").asInt());
+        JsonNode accounts = page.get("accounts");
+        assertEquals(1, accounts.size());
+        JsonNode account = accounts.get(0);
+        assertEquals("CHECKING", account.get("type").asText());
+        assertTrue(account.has("number"));
+        assertTrue(account.has("balance"));
+        assertFalse(account.has("card"));
+        assertFalse(page.get("hasNext").asBoolean());
+    }
+
+    @Test
+    void testBulkCardIssuance_IssuesValidCards() throws Exception {
+        // Given
+        JsonNode myAccounts = objectMapper.readTree(restTemplate.exchange(
+            buildUrl(port, "/api/me/accounts"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        ).getBody());
+        long accountId = myAccounts.get("accounts").get(0).get("id").asLong();
+
+        // When
+        ResponseEntity<String> submitted = restTemplate.postForEntity(
+            buildUrl(port, "/api/accounts/" + accountId + "/cards/bulk"),
+            new HttpEntity<>(Map.of("cardType", "DEBIT", "count", 3), headers),
+            String.class
+        );
+        assertEquals(HttpStatus.ACCEPTED, submitted.getStatusCode());
+        String jobId = objectMapper.readTree(submitted.getBody()).get("id").asText();
+
+        JsonNode job = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            job = objectMapper.readTree(restTemplate.exchange(
+                buildUrl(port, "/api/card-jobs/" + jobId),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+            ).getBody());
+            if (!"QUEUED".equals(job.get("status").asText()) && !"RUNNING".equals(job.get("status").asText())) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+
+        // Then - Progress reached the requested count and the secrets are handed over once
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertEquals(3, job.get("issued").asInt());
+        JsonNode cards = objectMapper.readTree(restTemplate.exchange(
+            buildUrl(port, "/api/card-jobs/" + jobId + "/cards"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        ).getBody()).get("cards");
+        assertEquals(3, cards.size());
+
+        JsonNode issued = cards.get(0);
+        ResponseEntity<String> validated = restTemplate.postForEntity(
+            buildUrl(port, "/auth/card/validate"),
+            new HttpEntity<>(Map.of("cardNumber", issued.get("cardNumber").asText(),
+                "cvv", issued.get("cvv").asText()), headers),
+            String.class
+        );
+        assertEquals(HttpStatus.OK, validated.getStatusCode());
+    }
+
+    @Test
+    void testBulkCardIssuance_JobHiddenFromOtherUsers() throws Exception {
+        // Given
+        JsonNode myAccounts = objectMapper.readTree(restTemplate.exchange(
+            buildUrl(port, "/api/me/accounts"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        ).getBody());
+        long accountId = myAccounts.get("accounts").get(0).get("id").asLong();
+        ResponseEntity<String> submitted = restTemplate.postForEntity(
+            buildUrl(port, "/api/accounts/" + accountId + "/cards/bulk"),
+            new HttpEntity<>(Map.of("cardType", "DEBIT", "count", 1), headers),
+            String.class
+        );
+        String jobId = objectMapper.readTree(submitted.getBody()).get("id").asText();
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.setBearerAuth(createUserAndGetToken(uniqueEmail("other.card.user")));
+
+        // When
+        ResponseEntity<String> status = restTemplate.exchange(
+            buildUrl(port, "/api/card-jobs/" + jobId),
+            HttpMethod.GET,
+            new HttpEntity<>(otherHeaders),
+            String.class
+        );
+        ResponseEntity<String> cards = restTemplate.exchange(
+            buildUrl(port, "/api/card-jobs/" + jobId + "/cards"),
+            HttpMethod.GET,
+            new HttpEntity<>(otherHeaders),
+            String.class
+        );
+
+        // Then - Indistinguishable from a job id that does not exist
+        assertEquals(HttpStatus.NOT_FOUND, status.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, cards.getStatusCode());
+    }
+
+    @Test
+    void testBulkCardIssuance_RefusedOnOtherUsersAccount() throws Exception {
+        // Given
+        JsonNode myAccounts = objectMapper.readTree(restTemplate.exchange(
+            buildUrl(port, "/api/me/accounts"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        ).getBody());
+        long accountId = myAccounts.get("accounts").get(0).get("id").asLong();
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.setContentType(MediaType.APPLICATION_JSON);
+        otherHeaders.setBearerAuth(createUserAndGetToken(uniqueEmail("other.card.user")));
+
+        // When
+        ResponseEntity<String> submitted = restTemplate.postForEntity(
+            buildUrl(port, "/api/accounts/" + accountId + "/cards/bulk"),
+            new HttpEntity<>(Map.of("cardType", "DEBIT", "count", 1), otherHeaders),
+            String.class
+        );
+
+        // Then - Indistinguishable from an account that does not exist
+        assertEquals(HttpStatus.BAD_REQUEST, submitted.getStatusCode());
+        assertEquals("Account not found", objectMapper.readTree(submitted.getBody()).get("error").asText());
+    }
+
     @Test
     void testGetUserAccounts_Unauthorized() {
         // Given - No auth token
@@ -187,13 +351,18 @@ public class AccountControllerTest extends BaseTestConfiguration {
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
     }
 
+    // Every test signs up against the same database file, so emails must not repeat
+    private static String uniqueEmail(String prefix) {
+        return prefix + "." + System.nanoTime() + "@example.com";
+    }
+
     /**
      * Helper method to create a user and return the JWT token
      */
-    private String createUserAndGetToken() throws Exception {
+    private String createUserAndGetToken(String email) throws Exception {
         SignupRequest signupRequest = new SignupRequest();
         signupRequest.setName("Account Test User");
-        signupRequest.setEmail("account.test@example.com");
+        signupRequest.setEmail(email);
         signupRequest.setPassword("password123");
         
         AccountDTO accountDTO = new AccountDTO();
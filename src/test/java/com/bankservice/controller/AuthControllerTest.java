@@ -4,6 +4,10 @@ import com.bankservice.config.BaseTestConfiguration;
 import com.bankservice.dto.AccountDTO;
 import com.bankservice.dto.LoginRequest;
 import com.bankservice.dto.SignupRequest;
+import com.bankservice.model.Card;
+import com.bankservice.repository.CardRepository;
+import com.bankservice.service.CardValidationService;
+import com.bankservice.service.IdGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +41,15 @@ public class AuthControllerTest extends BaseTestConfiguration {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardValidationService cardValidationService;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
     private HttpHeaders headers;
 
     @BeforeEach
@@ -186,15 +199,56 @@ public class AuthControllerTest extends BaseTestConfiguration {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    void testRefreshToken_RotatesAndRejectsReuse() throws Exception {
+        // Given - A signed-up user holding a refresh token
+        SignupRequest signupRequest = createSignupRequest(
+            "Refresh Test User", 
+            "refresh.test@example.com", 
+            "password123"
+        );
+        ResponseEntity<String> signup = restTemplate.postForEntity(
+            buildUrl(port, "/auth/signup"), 
+            new HttpEntity<>(signupRequest, headers), 
+            String.class
+        );
+        String refreshToken = objectMapper.readTree(signup.getBody()).get("refreshToken").asText();
+
+        // When - Refresh once
+        HttpEntity<Map<String, String>> refreshRequest =
+            new HttpEntity<>(Map.of("refreshToken", refreshToken), headers);
+        ResponseEntity<String> refreshed = restTemplate.postForEntity(
+            buildUrl(port, "/auth/refresh"), 
+            refreshRequest, 
+            String.class
+        );
+
+        // Then - A new pair is issued and the old refresh token is spent
+        assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        JsonNode refreshedJson = objectMapper.readTree(refreshed.getBody());
+        assertTrue(refreshedJson.has("token"));
+        assertNotEquals(refreshToken, refreshedJson.get("refreshToken").asText());
+
+        ResponseEntity<String> reused = restTemplate.postForEntity(
+            buildUrl(port, "/auth/refresh"), 
+            refreshRequest, 
+            String.class
+        );
+        assertEquals(HttpStatus.BAD_REQUEST, reused.getStatusCode());
+    }
+
     @Test
     void testCardValidation_Success() {
-        // Given
+        // Given - An issued card
+        String pan = idGenerator.nextCardNumber();
+        Card card = Card.builder().cardType("DEBIT").isActive(true).build();
+        cardRepository.save(cardValidationService.protect(card, pan, "123", "4321"));
         String cardValidationJson = """
         {
-            "cardNumber": "1234567890123456",
+            "cardNumber": "%s",
             "cvv": "123"
         }
-        """;
+        """.formatted(pan);
 
         HttpEntity<String> request = new HttpEntity<>(cardValidationJson, headers);
 
@@ -240,6 +294,33 @@ public class AuthControllerTest extends BaseTestConfiguration {
         assertTrue(responseBody.containsKey("error"));
     }
 
+    @Test
+    void testCardValidation_WrongCvvRejected() {
+        // Given
+        String pan = idGenerator.nextCardNumber();
+        Card card = Card.builder().cardType("DEBIT").isActive(true).build();
+        cardRepository.save(cardValidationService.protect(card, pan, "123", "4321"));
+        String cardValidationJson = """
+        {
+            "cardNumber": "%s",
+            "cvv": "124"
+        }
+        """.formatted(pan);
+
+        HttpEntity<String> request = new HttpEntity<>(cardValidationJson, headers);
+
+        // When
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+            buildUrl(port, "/auth/card/validate"), 
+            request, 
+            Map.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testCardValidation_MissingCvv() {
         // Given
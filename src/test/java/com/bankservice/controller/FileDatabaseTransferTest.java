@@ -0,0 +1,160 @@
+package com.bankservice.controller;
+
+import com.bankservice.config.FileDatabaseTestConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfers, batches and card issuance against a SQLite file, where an id
+ * source that needs its own connection would contend with the open write
+ * transaction for the single SQLite writer.
+ */
+public class FileDatabaseTransferTest extends FileDatabaseTestConfiguration {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpHeaders headers;
+    private long checkingId;
+    private long savingsId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> signup = Map.of(
+            "name", "File Database User",
+            "email", "file." + System.nanoTime() + "@example.com",
+            "password", "password123",
+            "accounts", List.of(
+                Map.of("type", "CHECKING", "primaryFlag", true, "balance", 1000.0),
+                Map.of("type", "SAVINGS", "primaryFlag", false, "balance", 1000.0)));
+        ResponseEntity<String> signedUp = restTemplate.postForEntity(
+            buildUrl(port, "/auth/signup"), new HttpEntity<>(signup, headers), String.class);
+        assertEquals(HttpStatus.OK, signedUp.getStatusCode(), signedUp.getBody());
+        headers.setBearerAuth(objectMapper.readTree(signedUp.getBody()).get("token").asText());
+
+        JsonNode accounts = objectMapper.readTree(restTemplate.exchange(buildUrl(port, "/api/me/accounts"),
+            HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody()).get("accounts");
+        checkingId = accounts.get(0).get("id").asLong();
+        savingsId = accounts.get(1).get("id").asLong();
+    }
+
+    @Test
+    void testTransfer_RepeatedTransfersAllCommit() throws Exception {
+        // When - Many more ids than one 50-id block of the old table generator
+        for (int i = 0; i < 120; i++) {
+            Map<String, Object> transfer = Map.of(
+                "fromAccountId", i % 2 == 0 ? checkingId : savingsId,
+                "toAccountId", i % 2 == 0 ? savingsId : checkingId,
+                "amount", 1.00,
+                "description", "file db " + i);
+            ResponseEntity<String> response = restTemplate.postForEntity(
+                buildUrl(port, "/api/transfer"), new HttpEntity<>(transfer, headers), String.class);
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode(), "transfer " + i + ": " + response.getBody());
+        }
+        JsonNode ledger = objectMapper.readTree(restTemplate.exchange(buildUrl(port, "/api/accounts/" + checkingId + "/ledger"),
+            HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody());
+        assertTrue(ledger.get("consistent").asBoolean());
+        assertEquals(1000.0, ledger.get("snapshotBalance").asDouble(), 0.000001);
+    }
+
+    @Test
+    void testTransfer_RejectedTransfersDoNotUndoConcurrentOnes() throws Exception {
+        // Given - Disjoint account pairs, so their transfers can share a group commit;
+        // every odd pair overdraws
+        long[] accounts = new long[16];
+        for (int i = 0; i < accounts.length; i++) {
+            ResponseEntity<String> created = restTemplate.postForEntity(buildUrl(port, "/api/accounts"),
+                new HttpEntity<>(Map.of("type", "CHECKING", "primaryFlag", false, "balance", 100.0), headers), String.class);
+            accounts[i] = objectMapper.readTree(created.getBody()).get("account").get("id").asLong();
+        }
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 32; i++) {
+            int pair = i % 8;
+            Map<String, Object> transfer = Map.of(
+                "fromAccountId", accounts[2 * pair],
+                "toAccountId", accounts[2 * pair + 1],
+                "amount", pair % 2 == 0 ? 1.00 : 5000.00,
+                "description", "concurrent " + i);
+            responses.add(callers.submit(() -> restTemplate.postForEntity(
+                buildUrl(port, "/api/transfer"), new HttpEntity<>(transfer, headers), String.class)));
+        }
+
+        // Then
+        for (int i = 0; i < responses.size(); i++) {
+            ResponseEntity<String> response = responses.get(i).get();
+            HttpStatus expected = i % 8 % 2 == 0 ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+            assertEquals(expected, response.getStatusCode(), "transfer " + i + ": " + response.getBody());
+        }
+        callers.shutdown();
+        for (int pair = 0; pair < 8; pair++) {
+            JsonNode sender = objectMapper.readTree(restTemplate.exchange(
+                buildUrl(port, "/api/accounts/" + accounts[2 * pair] + "/ledger"),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody());
+            assertTrue(sender.get("consistent").asBoolean());
+            assertEquals(pair % 2 == 0 ? 96.0 : 100.0, sender.get("snapshotBalance").asDouble(), 0.000001);
+        }
+    }
+
+    @Test
+    void testTransferBatch_LargeBatchCommits() throws Exception {
+        // Given
+        List<Map<String, Object>> transfers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            transfers.add(Map.of("fromAccountId", checkingId, "toAccountId", savingsId,
+                "amount", 1.00, "description", "batch " + i));
+        }
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(buildUrl(port, "/api/transfers/batch"),
+            new HttpEntity<>(Map.of("transfers", transfers), headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+        assertEquals(100, objectMapper.readTree(response.getBody()).get("completed").asInt());
+    }
+
+    @Test
+    void testIssueCard_FirstCardIssued() {
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+            buildUrl(port, "/api/accounts/" + checkingId + "/cards"),
+            new HttpEntity<>(Map.of("cardType", "DEBIT"), headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+    }
+}
@@ -3,11 +3,20 @@ package com.bankservice.controller;
 import com.bankservice.config.BaseTestConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,6 +25,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * Integration tests for Health/Actuator endpoints.
  * Tests application health monitoring and status endpoints.
  */
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(properties = "bank.actuator.password=health-test-operator-password")
 public class HealthControllerTest extends BaseTestConfiguration {
 
     @LocalServerPort
@@ -24,6 +35,12 @@ public class HealthControllerTest extends BaseTestConfiguration {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Value("${bank.actuator.username}")
+    private String actuatorUsername;
+
+    @Value("${bank.actuator.password}")
+    private String actuatorPassword;
+
     @Test
     void testHealthEndpoint_Success() {
         // When
@@ -95,4 +112,78 @@ public class HealthControllerTest extends BaseTestConfiguration {
         assertNotNull(responseBody);
         assertEquals("UP", responseBody.get("status"));
     }
+
+    @Test
+    void testPrometheusEndpoint_ExposesHotPathTimers() {
+        // When
+        ResponseEntity<String> response = operator().getForEntity(
+            buildUrl(port, "/actuator/prometheus"),
+            String.class
+        );
+
+        // Then - Scrapeable by the operator, with the transfer, auth and JWT meters registered
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertNotNull(body);
+        assertTrue(body.contains("transfer_phase_seconds_bucket{"));
+        assertTrue(body.contains("transfer_rejected_total{"));
+        assertTrue(body.contains("auth_bcrypt_seconds_count{"));
+        assertTrue(body.contains("jwt_verify_seconds_count{"));
+    }
+
+    @Test
+    void testSqlStatsEndpoint_ListsStatementShapes() {
+        // When - Schema creation at startup already ran through the monitored DataSource
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<List> response = operator().getForEntity(
+            buildUrl(port, "/actuator/sqlstats?limit=5"),
+            List.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<?> shapes = response.getBody();
+        assertNotNull(shapes);
+        assertFalse(shapes.isEmpty());
+        assertTrue(shapes.size() <= 5);
+        Map<?, ?> top = (Map<?, ?>) shapes.get(0);
+        assertTrue(top.containsKey("shape"));
+        assertTrue(top.containsKey("count"));
+        assertTrue(top.containsKey("totalMs"));
+        assertTrue(top.containsKey("maxMs"));
+    }
+
+    @Test
+    void testPrometheusEndpoint_RequiresOperator() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+            buildUrl(port, "/actuator/prometheus"),
+            String.class
+        );
+
+        // Then - Per-account conflict series must not be public
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void testSqlStatsReset_RequiresOperator() throws Exception {
+        // Given - java.net.http, since HttpURLConnection cannot read a 401 challenge to a DELETE
+        HttpClient client = HttpClient.newHttpClient();
+        URI sqlStats = URI.create(buildUrl(port, "/actuator/sqlstats"));
+        String wrongCredentials = Base64.getEncoder().encodeToString((actuatorUsername + ":wrong").getBytes());
+
+        // When
+        HttpResponse<Void> anonymous = client.send(HttpRequest.newBuilder(sqlStats).DELETE().build(),
+            HttpResponse.BodyHandlers.discarding());
+        HttpResponse<Void> wrongPassword = client.send(HttpRequest.newBuilder(sqlStats).DELETE()
+            .header("Authorization", "Basic " + wrongCredentials).build(), HttpResponse.BodyHandlers.discarding());
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), anonymous.statusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), wrongPassword.statusCode());
+    }
+
+    private TestRestTemplate operator() {
+        return restTemplate.withBasicAuth(actuatorUsername, actuatorPassword);
+    }
 }
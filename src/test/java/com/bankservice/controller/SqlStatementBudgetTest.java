@@ -0,0 +1,138 @@
+package com.bankservice.controller;
+
+import com.bankservice.config.FileDatabaseTestConfiguration;
+import com.bankservice.config.SqlStatementMonitor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-endpoint SQL statement budgets. Each call is measured with the statement
+ * counter of the monitored DataSource, so an association that starts loading
+ * row by row again (N+1) fails here instead of showing up as latency.
+ */
+public class SqlStatementBudgetTest extends FileDatabaseTestConfiguration {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementMonitor sqlMonitor;
+
+    private HttpHeaders headers;
+    private long checkingId;
+    private long savingsId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> signup = Map.of(
+            "name", "Budget Test User",
+            "email", "budget." + System.nanoTime() + "@example.com",
+            "password", "password123",
+            "accounts", List.of(
+                Map.of("type", "CHECKING", "primaryFlag", true, "balance", 1000.0),
+                Map.of("type", "SAVINGS", "primaryFlag", false, "balance", 1000.0)));
+        ResponseEntity<String> signedUp = restTemplate.postForEntity(
+            buildUrl(port, "/auth/signup"), new HttpEntity<>(signup, headers), String.class);
+        assertEquals(HttpStatus.OK, signedUp.getStatusCode());
+        headers.setBearerAuth(objectMapper.readTree(signedUp.getBody()).get("token").asText());
+
+        JsonNode accounts = objectMapper.readTree(get("/api/me/accounts").getBody()).get("accounts");
+        checkingId = accounts.get(0).get("id").asLong();
+        savingsId = accounts.get(1).get("id").asLong();
+
+        // Several cards and history rows, so per-row loading would be visible
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK, restTemplate.postForEntity(buildUrl(port, "/api/accounts/" + checkingId + "/cards"),
+                new HttpEntity<>(Map.of("cardType", "DEBIT"), headers), String.class).getStatusCode());
+            assertEquals(HttpStatus.OK, transfer().getStatusCode());
+        }
+    }
+
+    @Test
+    void testGetAccount_WithinBudget() {
+        assertWithinBudget(1, () -> get("/api/accounts/" + checkingId));
+    }
+
+    @Test
+    void testGetAllAccounts_WithinBudget() {
+        assertWithinBudget(1, () -> get("/api/accounts"));
+    }
+
+    @Test
+    void testGetMyAccounts_WithinBudget() {
+        assertWithinBudget(1, () -> get("/api/me/accounts"));
+    }
+
+    @Test
+    void testGetTransactions_WithinBudget() {
+        // Account lookup plus one page query, however many rows the page holds
+        assertWithinBudget(2, () -> get("/api/accounts/" + checkingId + "/transactions"));
+    }
+
+    @Test
+    void testGetCards_WithinBudget() {
+        assertWithinBudget(2, () -> get("/api/accounts/" + checkingId + "/cards"));
+    }
+
+    @Test
+    void testGetStatement_WithinBudget() {
+        // Account with card and the period's entries; a period ending now closes at the balance
+        assertWithinBudget(3, () -> get("/api/accounts/" + checkingId + "/statements"));
+    }
+
+    @Test
+    void testTransfer_WithinBudget() {
+        // One read of both accounts, the conditional debit, the credit, the journal
+        // insert batch and two rollup updates
+        assertWithinBudget(6, this::transfer);
+    }
+
+    private void assertWithinBudget(int budget, Supplier<ResponseEntity<String>> call) {
+        long before = sqlMonitor.statementCount();
+        ResponseEntity<String> response = call.get();
+        long statements = sqlMonitor.statementCount() - before;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(statements <= budget,
+            "Expected at most " + budget + " SQL statements but " + statements + " ran");
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return restTemplate.exchange(buildUrl(port, path), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<String> transfer() {
+        Map<String, Object> request = Map.of(
+            "fromAccountId", checkingId,
+            "toAccountId", savingsId,
+            "amount", 1.00,
+            "description", "budget");
+        return restTemplate.postForEntity(buildUrl(port, "/api/transfer"), new HttpEntity<>(request, headers), String.class);
+    }
+}
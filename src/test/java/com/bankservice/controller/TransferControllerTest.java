@@ -1,6 +1,6 @@
 package com.bankservice.controller;
 
-import com.bankservice.config.BaseTestConfiguration;
+import com.bankservice.config.FileDatabaseTestConfiguration;
 import com.bankservice.dto.AccountDTO;
 import com.bankservice.dto.SignupRequest;
 import com.bankservice.dto.TransferRequest;
@@ -19,6 +19,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -28,7 +31,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Integration tests for TransferController endpoints.
  * Tests money transfer functionality between accounts.
  */
-public class TransferControllerTest extends BaseTestConfiguration {
+public class TransferControllerTest extends FileDatabaseTestConfiguration {
 
     @LocalServerPort
     private int port;
@@ -229,21 +232,413 @@ public class TransferControllerTest extends BaseTestConfiguration {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    void testBatchTransfer_PerItemResults() throws Exception {
+        // Given - One valid transfer and one exceeding the remaining balance
+        TransferRequest valid = new TransferRequest();
+        valid.setFromAccountId(fromAccountId);
+        valid.setToAccountId(toAccountId);
+        valid.setAmount(new BigDecimal("100.00"));
+
+        TransferRequest tooLarge = new TransferRequest();
+        tooLarge.setFromAccountId(fromAccountId);
+        tooLarge.setToAccountId(toAccountId);
+        tooLarge.setAmount(new BigDecimal("5000.00"));
+
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(
+            Map.of("transfers", List.of(valid, tooLarge)), headers);
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+            buildUrl(port, "/api/transfers/batch"),
+            request,
+            String.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responseJson = objectMapper.readTree(response.getBody());
+        JsonNode results = responseJson.get("results");
+        assertEquals(2, results.size());
+        assertEquals("COMPLETED", results.get(0).get("status").asText());
+        assertTrue(results.get(0).has("transactionId"));
+        assertEquals("REJECTED", results.get(1).get("status").asText());
+        assertEquals(1, responseJson.get("completed").asInt());
+    }
+
+    @Test
+    void testTransactionHistory_KeysetPagination() throws Exception {
+        // Given - Three transfers out of the source account
+        for (int i = 0; i < 3; i++) {
+            TransferRequest transferRequest = new TransferRequest();
+            transferRequest.setFromAccountId(fromAccountId);
+            transferRequest.setToAccountId(toAccountId);
+            transferRequest.setAmount(new BigDecimal("10.00"));
+            ResponseEntity<String> transfer = restTemplate.postForEntity(
+                buildUrl(port, "/api/transfer"),
+                new HttpEntity<>(transferRequest, headers),
+                String.class
+            );
+            assertEquals(HttpStatus.OK, transfer.getStatusCode());
+        }
+
+        // When - Read the history two rows at a time
+        ResponseEntity<String> firstPage = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/transactions?limit=2"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        JsonNode firstJson = objectMapper.readTree(firstPage.getBody());
+        assertEquals(2, firstJson.get("transactions").size());
+        String cursor = firstJson.get("nextCursor").asText();
+        assertFalse(cursor.isEmpty());
+
+        ResponseEntity<String> secondPage = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/transactions?limit=2&cursor=" + cursor),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        JsonNode secondJson = objectMapper.readTree(secondPage.getBody());
+        assertTrue(secondJson.get("transactions").size() >= 1);
+        long lastOfFirst = firstJson.get("transactions").get(1).get("id").asLong();
+        assertNotEquals(lastOfFirst, secondJson.get("transactions").get(0).get("id").asLong());
+    }
+
+    @Test
+    void testTransactionHistory_TamperedCursorRejected() throws Exception {
+        // Given - Well-formed Base64 whose parts are not a timestamp and an id
+        String[] tampered = {
+            Base64.getUrlEncoder().withoutPadding().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8)),
+            Base64.getUrlEncoder().withoutPadding().encodeToString("2024-01-01T00:00|one".getBytes(StandardCharsets.UTF_8)),
+            "not*base64"
+        };
+
+        for (String cursor : tampered) {
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                buildUrl(port, "/api/accounts/" + fromAccountId + "/transactions?cursor=" + cursor),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+            );
+
+            // Then
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals("Invalid cursor", objectMapper.readTree(response.getBody()).get("error").asText());
+        }
+    }
+
+    @Test
+    void testStatement_DateRangeBalances() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("100.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+        String today = java.time.LocalDate.now().toString();
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/statements?startDate=" + today + "&endDate=" + today),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode statement = objectMapper.readTree(response.getBody()).get("statement");
+        assertTrue(statement.get("totalOut").asDouble() >= 100.0);
+        double movement = statement.get("totalIn").asDouble() - statement.get("totalOut").asDouble();
+        assertEquals(statement.get("closingBalance").asDouble(),
+            statement.get("openingBalance").asDouble() + movement, 0.001);
+    }
+
+    @Test
+    void testStatement_PartialDayExcludesLaterBookings() throws Exception {
+        // Given - One transfer before the period end and one after it
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("30.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+        Thread.sleep(1100);
+        String from = java.time.LocalDate.now().atStartOfDay().toString();
+        String to = java.time.LocalDateTime.now().withNano(0).toString();
+        transferRequest.setAmount(new BigDecimal("20.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/statements?startDate=" + from + "&endDate=" + to),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+        ResponseEntity<String> account = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - The period closes before the second transfer
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode statement = objectMapper.readTree(response.getBody()).get("statement");
+        assertEquals(objectMapper.readTree(account.getBody()).get("balance").asDouble() + 20.0,
+            statement.get("closingBalance").asDouble(), 0.001);
+        double movement = statement.get("totalIn").asDouble() - statement.get("totalOut").asDouble();
+        assertEquals(statement.get("closingBalance").asDouble(),
+            statement.get("openingBalance").asDouble() + movement, 0.001);
+    }
+
+    @Test
+    void testStatementExport_Ndjson() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("25.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+
+        HttpHeaders exportHeaders = new HttpHeaders();
+        exportHeaders.setBearerAuth(authToken);
+        exportHeaders.setAccept(List.of(MediaType.parseMediaType("application/x-ndjson")));
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/statements"),
+            HttpMethod.GET,
+            new HttpEntity<>(exportHeaders),
+            String.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        String[] lines = response.getBody().trim().split("\n");
+        assertTrue(lines.length >= 1);
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertTrue(row.has("id"));
+            assertTrue(row.has("amount"));
+        }
+    }
+
+    @Test
+    void testStatementExport_CsvSpansSeveralPages() throws Exception {
+        // Given - More rows than one export page, many sharing a timestamp
+        List<TransferRequest> transfers = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            TransferRequest transfer = new TransferRequest();
+            transfer.setFromAccountId(fromAccountId);
+            transfer.setToAccountId(toAccountId);
+            transfer.setAmount(new BigDecimal("1.00"));
+            transfers.add(transfer);
+        }
+        ResponseEntity<String> batch = restTemplate.postForEntity(buildUrl(port, "/api/transfers/batch"),
+            new HttpEntity<>(Map.of("transfers", transfers), headers), String.class);
+        assertEquals(600, objectMapper.readTree(batch.getBody()).get("completed").asInt());
+
+        HttpHeaders exportHeaders = new HttpHeaders();
+        exportHeaders.setBearerAuth(authToken);
+        exportHeaders.setAccept(List.of(MediaType.parseMediaType("text/csv")));
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId + "/statements"),
+            HttpMethod.GET,
+            new HttpEntity<>(exportHeaders),
+            String.class
+        );
+
+        // Then - Every row exactly once, in journal order, across page boundaries
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String[] lines = response.getBody().trim().split("\n");
+        assertEquals("id,timestamp,amount,direction,description", lines[0]);
+        long outRows = 0;
+        long previousId = Long.MIN_VALUE;
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            long id = Long.parseLong(fields[0]);
+            assertTrue(id > previousId);
+            previousId = id;
+            if ("OUT".equals(fields[3])) {
+                outRows++;
+            }
+        }
+        assertEquals(600, outRows);
+    }
+
+    @Test
+    void testBalanceHistory_RollupMatchesBalance() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("50.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+
+        // When
+        ResponseEntity<String> history = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + toAccountId + "/balance-history"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+        ResponseEntity<String> account = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + toAccountId),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - Today's closing balance is the account's current balance
+        assertEquals(HttpStatus.OK, history.getStatusCode());
+        JsonNode days = objectMapper.readTree(history.getBody()).get("days");
+        assertTrue(days.size() >= 1);
+        JsonNode today = days.get(days.size() - 1);
+        assertTrue(today.get("totalIn").asDouble() >= 50.0);
+        assertEquals(objectMapper.readTree(account.getBody()).get("balance").asDouble(),
+            today.get("closingBalance").asDouble(), 0.001);
+    }
+
+    @Test
+    void testTransferMoney_IdempotentRetryMovesMoneyOnce() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("40.00"));
+        HttpHeaders keyed = new HttpHeaders();
+        keyed.putAll(headers);
+        keyed.set("Idempotency-Key", "retry-" + System.nanoTime());
+        HttpEntity<TransferRequest> request = new HttpEntity<>(transferRequest, keyed);
+        double balanceBefore = objectMapper.readTree(restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        ).getBody()).get("balance").asDouble();
+
+        // When
+        ResponseEntity<String> first = restTemplate.postForEntity(buildUrl(port, "/api/transfer"), request, String.class);
+        ResponseEntity<String> retry = restTemplate.postForEntity(buildUrl(port, "/api/transfer"), request, String.class);
+        ResponseEntity<String> account = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + fromAccountId),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - The retry gets the original transaction and the sender is debited once
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(objectMapper.readTree(first.getBody()).get("transaction").get("id").asLong(),
+            objectMapper.readTree(retry.getBody()).get("transaction").get("id").asLong());
+        assertEquals(balanceBefore - 40.0, objectMapper.readTree(account.getBody()).get("balance").asDouble(), 0.001);
+    }
+
+    @Test
+    void testTransferMoney_IdempotencyKeyReusedForDifferentRequest() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("40.00"));
+        transferRequest.setDescription("rent");
+        HttpHeaders keyed = new HttpHeaders();
+        keyed.putAll(headers);
+        keyed.set("Idempotency-Key", "reuse-" + System.nanoTime());
+        ResponseEntity<String> first = restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, keyed), String.class);
+
+        // When - Same key and amount, different description
+        transferRequest.setDescription("deposit");
+        ResponseEntity<String> reused = restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, keyed), String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+        assertTrue(reused.getBody().contains("Idempotency-Key was already used"));
+    }
+
+    @Test
+    void testTransfer_PostsBothLegsAndSnapshotMatchesJournal() throws Exception {
+        // Given
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(new BigDecimal("25.00"));
+        restTemplate.postForEntity(buildUrl(port, "/api/transfer"),
+            new HttpEntity<>(transferRequest, headers), String.class);
+
+        // When
+        ResponseEntity<String> incoming = restTemplate.exchange(
+            buildUrl(port, "/api/accounts/" + toAccountId + "/transactions?limit=1"),
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            String.class
+        );
+
+        // Then - The receiver has its own IN entry
+        assertEquals(HttpStatus.OK, incoming.getStatusCode());
+        JsonNode latest = objectMapper.readTree(incoming.getBody()).get("transactions").get(0);
+        assertEquals("IN", latest.get("direction").asText());
+        assertEquals(25.0, latest.get("amount").asDouble(), 0.001);
+
+        // And - Both snapshots agree with a replay of the journal
+        for (Long accountId : List.of(fromAccountId, toAccountId)) {
+            ResponseEntity<String> ledger = restTemplate.exchange(
+                buildUrl(port, "/api/accounts/" + accountId + "/ledger"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+            );
+            assertEquals(HttpStatus.OK, ledger.getStatusCode());
+            JsonNode check = objectMapper.readTree(ledger.getBody());
+            assertTrue(check.get("consistent").asBoolean());
+            assertEquals(check.get("snapshotBalance").asDouble(), check.get("journalBalance").asDouble(), 0.001);
+        }
+    }
+
     /**
      * Helper method to create a user with multiple accounts and set up test data
      */
     private void setupUserAndAccounts() throws Exception {
-        // Create user with checking account
+        // Create user with checking and savings accounts. Both are opened at
+        // signup: POST /api/accounts attaches to the first holder in the
+        // database, which is another test's user once the file is shared.
         SignupRequest signupRequest = new SignupRequest();
         signupRequest.setName("Transfer Test User");
-        signupRequest.setEmail("transfer.test@example.com");
+        // Every test signs up against the same database file, so emails must not repeat
+        signupRequest.setEmail("transfer.test." + System.nanoTime() + "@example.com");
         signupRequest.setPassword("password123");
         
         AccountDTO checkingAccount = new AccountDTO();
         checkingAccount.setType("CHECKING");
         checkingAccount.setPrimaryFlag(true);
         checkingAccount.setBalance(1000.0);
-        signupRequest.setAccounts(List.of(checkingAccount));
+
+        AccountDTO savingsAccount = new AccountDTO();
+        savingsAccount.setType("SAVINGS");
+        savingsAccount.setPrimaryFlag(false);
+        savingsAccount.setBalance(500.0);
+        signupRequest.setAccounts(List.of(checkingAccount, savingsAccount));
 
         HttpHeaders signupHeaders = new HttpHeaders();
         signupHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -259,35 +654,20 @@ public class TransferControllerTest extends BaseTestConfiguration {
         JsonNode signupJson = objectMapper.readTree(signupResponse.getBody());
         authToken = signupJson.get("token").asText();
 
-        // Create a second account
         HttpHeaders authHeaders = new HttpHeaders();
         authHeaders.setContentType(MediaType.APPLICATION_JSON);
         authHeaders.setBearerAuth(authToken);
-        
-        AccountDTO savingsAccount = new AccountDTO();
-        savingsAccount.setType("SAVINGS");
-        savingsAccount.setPrimaryFlag(false);
-        savingsAccount.setBalance(500.0);
-
-        HttpEntity<AccountDTO> accountEntity = new HttpEntity<>(savingsAccount, authHeaders);
-        ResponseEntity<String> accountResponse = restTemplate.postForEntity(
-            buildUrl(port, "/api/accounts"),
-            accountEntity,
-            String.class
-        );
-
-        assertEquals(HttpStatus.OK, accountResponse.getStatusCode());
 
-        // Get all accounts to extract IDs
+        // Get this user's accounts to extract IDs
         ResponseEntity<String> accountsResponse = restTemplate.exchange(
-            buildUrl(port, "/api/accounts"),
+            buildUrl(port, "/api/me/accounts"),
             HttpMethod.GET,
             new HttpEntity<>(authHeaders),
             String.class
         );
 
         assertEquals(HttpStatus.OK, accountsResponse.getStatusCode());
-        JsonNode accountsArray = objectMapper.readTree(accountsResponse.getBody());
+        JsonNode accountsArray = objectMapper.readTree(accountsResponse.getBody()).get("accounts");
         assertTrue(accountsArray.isArray());
         assertTrue(accountsArray.size() >= 2);
 
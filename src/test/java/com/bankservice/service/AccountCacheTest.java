@@ -0,0 +1,107 @@
+package com.bankservice.service;
+
+import com.bankservice.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the read-through account cache and its invalidation.
+ */
+public class AccountCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountCache(meterRegistry, 2, 60);
+        cache.registerGauges();
+    }
+
+    @Test
+    void testGet_SecondLookupServedFromMemory() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(account(id, 100.0));
+        });
+        Optional<Account> second = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(account(id, 100.0));
+        });
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(100.0, second.orElseThrow().getBalance());
+        assertEquals(0.5, meterRegistry.get("account.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testInvalidate_NextLookupReloads() {
+        // Given
+        cache.get(1L, id -> Optional.of(account(id, 100.0)));
+
+        // When
+        cache.invalidate(1L);
+        Optional<Account> reloaded = cache.get(1L, id -> Optional.of(account(id, 75.0)));
+
+        // Then
+        assertEquals(75.0, reloaded.orElseThrow().getBalance());
+        assertEquals(1.0, meterRegistry.get("account.cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void testGet_RowLoadedDuringInvalidationIsNotCached() {
+        // Given - A write commits while the old row is being read
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of(account(id, 100.0));
+        });
+
+        // When
+        Optional<Account> next = cache.get(1L, id -> Optional.of(account(id, 75.0)));
+
+        // Then
+        assertEquals(75.0, next.orElseThrow().getBalance());
+    }
+
+    @Test
+    void testGet_SizeBoundEvicts() {
+        // When
+        for (long id = 1; id <= 3; id++) {
+            cache.get(id, accountId -> Optional.of(account(accountId, 0.0)));
+        }
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("account.cache.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("account.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void testGet_FullCacheTrimsToLowWaterMark() {
+        // Given
+        AccountCache larger = new AccountCache(meterRegistry, 20, 60);
+
+        // When - One load past capacity trims to 18, the next fits without a scan
+        for (long id = 1; id <= 22; id++) {
+            larger.get(id, accountId -> Optional.of(account(accountId, 0.0)));
+        }
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("account.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    private Account account(Long id, double balance) {
+        return Account.builder().id(id).balance(balance).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.bankservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for account and card number generation.
+ */
+public class IdGeneratorTest {
+
+    @Test
+    void testConcurrentIds_AreUnique() throws Exception {
+        // Given
+        IdGenerator generator = new IdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testIds_IncreaseAndCarryNode() {
+        // Given
+        IdGenerator generator = new IdGenerator(7);
+
+        // When
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        // Then
+        assertTrue(second > first);
+        assertEquals(7, (first >>> 10) & 31);
+    }
+
+    @Test
+    void testCardNumbers_AreLuhnValid() {
+        // Given
+        IdGenerator generator = new IdGenerator(0);
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            String pan = generator.nextCardNumber();
+            assertEquals(19, pan.length());
+            assertTrue(IdGenerator.isLuhnValid(pan), pan);
+        }
+        assertTrue(IdGenerator.isLuhnValid("4532015112830366"));
+        assertFalse(IdGenerator.isLuhnValid("4532015112830367"));
+        assertTrue(generator.nextAccountNumber().matches("ACC\\d{17}"));
+    }
+
+    @Test
+    void testNodeOutOfRange_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(32));
+    }
+}
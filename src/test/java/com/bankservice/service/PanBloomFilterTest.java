@@ -0,0 +1,50 @@
+package com.bankservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the issued-PAN Bloom filter.
+ */
+public class PanBloomFilterTest {
+
+    private final CardHasher hasher = new CardHasher("test-key");
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        // Given
+        PanBloomFilter filter = new PanBloomFilter(10_000, 0.01);
+        IdGenerator ids = new IdGenerator(0);
+        String[] pans = new String[10_000];
+        for (int i = 0; i < pans.length; i++) {
+            pans[i] = ids.nextCardNumber();
+            filter.put(hasher.panHash(pans[i]));
+        }
+
+        // Then
+        for (String pan : pans) {
+            assertTrue(filter.mightContain(hasher.panHash(pan)));
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        // Given
+        PanBloomFilter filter = new PanBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hasher.panHash("issued-" + i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(hasher.panHash("never-issued-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
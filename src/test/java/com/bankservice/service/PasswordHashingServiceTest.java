@@ -0,0 +1,71 @@
+package com.bankservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bounded password hashing pool.
+ */
+public class PasswordHashingServiceTest {
+
+    @Test
+    void testSaturatedPool_RejectsFast() throws Exception {
+        // Given - One worker, one queue slot, and an encoder that blocks until released
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        PasswordHashingService hasher = new PasswordHashingService(blocking, new SimpleMeterRegistry(), 1, 1, 5000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> hasher.encode("first"));
+        started.await();
+        callers.submit(() -> hasher.encode("queued"));
+        while (hasher.getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When / Then
+        assertThrows(HashingCapacityException.class, () -> hasher.encode("rejected"));
+
+        release.countDown();
+        callers.shutdown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void testNeedsRehash_WhenCostBelowConfigured() {
+        // Given
+        PasswordHashingService hasher = new PasswordHashingService(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 1, 4, 5000);
+        String cost4 = new BCryptPasswordEncoder(4).encode("password123");
+        String cost5 = new BCryptPasswordEncoder(5).encode("password123");
+
+        // Then
+        assertTrue(hasher.needsRehash(cost4));
+        assertFalse(hasher.needsRehash(cost5));
+        assertTrue(hasher.matches("password123", cost4));
+        hasher.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package com.bankservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput comparison between one global transfer lock committing each transfer on its
+ * own, and the striped TransferEngine feeding the group-committing WritePipeline.
+ * Work and commit (fsync) costs are simulated by parking.
+ *
+ * Run with: mvn test -Dtest=TransferEngineBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TransferEngineBenchmarkTest {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final long WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long COMMIT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long DURATION_MILLIS = 3_000;
+
+    @Test
+    void stripedLockingOutperformsGlobalLock() throws Exception {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors());
+
+        ReentrantLock globalLock = new ReentrantLock();
+        TransactionTemplate perTransfer = new TransactionTemplate(new SimulatedTransactionManager());
+        double global = measure(threads, (from, to) -> {
+            globalLock.lock();
+            try {
+                perTransfer.executeWithoutResult(status -> LockSupport.parkNanos(WORK_NANOS));
+            } finally {
+                globalLock.unlock();
+            }
+        });
+
+        WritePipeline pipeline = new WritePipeline(new SimulatedTransactionManager(), null, 64, 200, 10_000);
+        pipeline.start();
+        TransferEngine engine = new TransferEngine(pipeline, new SimpleMeterRegistry(), 3, 5, 1000, 1000, 10_000);
+        double striped = measure(threads, (from, to) -> engine.execute(from, to, () -> {
+            LockSupport.parkNanos(WORK_NANOS);
+            return null;
+        }));
+        pipeline.stop();
+
+        System.out.printf("threads=%d global=%.0f ops/s striped=%.0f ops/s speedup=%.1fx%n",
+            threads, global, striped, striped / global);
+        assertTrue(striped > global);
+    }
+
+    private double measure(int threads, BiConsumer<Long, Long> transfer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicLong completed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long from = random.nextLong(1, ACCOUNTS);
+                    long to = from + random.nextLong(1, ACCOUNTS - from + 1);
+                    transfer.accept(from, to);
+                    completed.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        done.await();
+        pool.shutdown();
+        return completed.get() * 1000.0 / DURATION_MILLIS;
+    }
+
+    private static class SimulatedTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            LockSupport.parkNanos(COMMIT_NANOS);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
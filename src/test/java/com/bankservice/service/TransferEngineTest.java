@@ -0,0 +1,206 @@
+package com.bankservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for conflict retries, phase timers and the known-balance fast path in TransferEngine.
+ */
+public class TransferEngineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WritePipeline pipeline;
+    private TransferEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new WritePipeline(new NoOpTransactionManager(), null, 64, 200, 100);
+        pipeline.start();
+        engine = new TransferEngine(pipeline, meterRegistry, 3, 1, 1, 60_000, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void testExecute_ConflictRetriedUntilItSucceeds() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = engine.execute(1L, 2L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TransferConflictException(1L, "conflict");
+            }
+            return "posted";
+        });
+
+        // Then
+        assertEquals("posted", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("transfer.conflicts").tag("account", "1").counter().count());
+        assertEquals(0.0, meterRegistry.get("transfer.conflicts.exhausted").counter().count());
+    }
+
+    @Test
+    void testExecute_ConflictSurfacesAfterLastAttempt() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(TransferConflictException.class, () -> engine.execute(1L, 2L, () -> {
+            attempts.incrementAndGet();
+            throw new TransferConflictException(2L, "conflict");
+        }));
+
+        // Then
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, meterRegistry.get("transfer.conflicts").tag("account", "2").counter().count());
+        assertEquals(1.0, meterRegistry.get("transfer.conflicts.exhausted").counter().count());
+    }
+
+    @Test
+    void testExecute_PerAccountSeriesAreBounded() {
+        // When - One tracked account allowed
+        assertThrows(TransferConflictException.class, () -> engine.execute(1L, 2L, () -> {
+            throw new TransferConflictException(1L, "conflict");
+        }));
+        assertThrows(TransferConflictException.class, () -> engine.execute(3L, 4L, () -> {
+            throw new TransferConflictException(3L, "conflict");
+        }));
+
+        // Then
+        assertEquals(3.0, meterRegistry.get("transfer.conflicts").tag("account", "1").counter().count());
+        assertEquals(3.0, meterRegistry.get("transfer.conflicts").tag("account", "other").counter().count());
+    }
+
+    @Test
+    void testExecute_OtherFailuresAreNotRetried() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(RuntimeException.class, () -> engine.execute(1L, 2L, () -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException("Insufficient balance");
+        }));
+
+        // Then
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testExecute_RerunWorkRecordsEachPhaseOnce() throws Exception {
+        // Given - Two transfers share a group whose commit is lost, so both run twice
+        pipeline.stop();
+        NoOpTransactionManager failingOnce = new NoOpTransactionManager();
+        failingOnce.failNextCommit = true;
+        pipeline = new WritePipeline(failingOnce, null, 2, 5_000_000, 100);
+        pipeline.start();
+        engine = new TransferEngine(pipeline, meterRegistry, 3, 1, 1, 60_000, 10_000);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Integer> first = callers.submit(() -> engine.execute(1L, 2L, runs::incrementAndGet));
+        Future<Integer> second = callers.submit(() -> engine.execute(3L, 4L, runs::incrementAndGet));
+        first.get();
+        second.get();
+        callers.shutdown();
+
+        // Then
+        assertEquals(4, runs.get());
+        for (String phase : List.of("queue", "db", "commit")) {
+            assertEquals(2, meterRegistry.get("transfer.phase").tag("operation", "single").tag("phase", phase)
+                .timer().count(), phase);
+        }
+    }
+
+    @Test
+    void testCheckKnownBalance_RecentLowBalanceRejected() {
+        // Given
+        engine.observeBalance(1L, 10.0);
+
+        // When & Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.checkKnownBalance(1L, 50.0));
+        assertEquals("Insufficient balance", e.getMessage());
+        assertDoesNotThrow(() -> engine.checkKnownBalance(1L, 5.0));
+        assertDoesNotThrow(() -> engine.checkKnownBalance(2L, 50.0));
+    }
+
+    @Test
+    void testCheckKnownBalance_StaleBalanceFallsThrough() throws InterruptedException {
+        // Given - A balance trusted for 1 ms, e.g. before a credit from another instance
+        TransferEngine shortLived = new TransferEngine(pipeline, meterRegistry, 3, 1, 1, 1, 10_000);
+        shortLived.observeBalance(1L, 10.0);
+
+        // When
+        Thread.sleep(5);
+
+        // Then - The caller is sent to the database instead of being refused
+        assertDoesNotThrow(() -> shortLived.checkKnownBalance(1L, 50.0));
+    }
+
+    @Test
+    void testCheckKnownBalance_ZeroTtlDisablesFastPath() {
+        // Given
+        TransferEngine disabled = new TransferEngine(pipeline, meterRegistry, 3, 1, 1, 0, 10_000);
+        disabled.observeBalance(1L, 10.0);
+
+        // When & Then
+        assertDoesNotThrow(() -> disabled.checkKnownBalance(1L, 50.0));
+    }
+
+    @Test
+    void testKnownBalances_TrimmedToLowWaterMark() {
+        // Given
+        KnownBalances balances = new KnownBalances(60_000, 100);
+
+        // When
+        for (long id = 0; id < 101; id++) {
+            balances.put(id, 1.0);
+        }
+
+        // Then - Trimmed once to 90 at the 101st put, which was then added
+        assertEquals(91, balances.size());
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        volatile boolean failNextCommit;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            if (failNextCommit) {
+                failNextCommit = false;
+                throw new TransactionSystemException("disk I/O error");
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
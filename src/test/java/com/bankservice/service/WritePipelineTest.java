@@ -0,0 +1,129 @@
+package com.bankservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for group commit in WritePipeline.
+ */
+public class WritePipelineTest {
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private WritePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void testExecute_RejectedItemFailsAloneAndGroupCommitsOnce() throws Exception {
+        // Given - The group waits until all four items are queued
+        pipeline = new WritePipeline(transactionManager, null, 4, 5_000_000, 100);
+        pipeline.start();
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int item = i;
+            results.add(callers.submit(() -> pipeline.execute(() -> {
+                runs.incrementAndGet();
+                if (item == 2) {
+                    throw new RuntimeException("Insufficient balance");
+                }
+                return "posted " + item;
+            })));
+        }
+
+        // Then
+        assertEquals("posted 0", results.get(0).get());
+        assertEquals("posted 1", results.get(1).get());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> results.get(2).get());
+        assertEquals("Insufficient balance", rejected.getCause().getMessage());
+        assertEquals("posted 3", results.get(3).get());
+        assertEquals(4, runs.get());
+        assertEquals(1, transactionManager.commits.get());
+        callers.shutdown();
+    }
+
+    @Test
+    void testExecute_BusyDatabaseReportedAsRetryable() {
+        // Given
+        pipeline = new WritePipeline(transactionManager, null, 64, 200, 100);
+        pipeline.start();
+
+        // When
+        StorageBusyException busy = assertThrows(StorageBusyException.class, () -> pipeline.execute(() -> {
+            throw new RuntimeException("could not execute statement",
+                new SQLiteException("database is locked", SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT));
+        }));
+
+        // Then
+        assertEquals("could not execute statement", busy.getCause().getMessage());
+    }
+
+    @Test
+    void testExecute_LostGroupTransactionRerunsEachItemAlone() throws Exception {
+        // Given - The group commit fails; the per-item commits that follow succeed
+        transactionManager.failNextCommit.set(true);
+        pipeline = new WritePipeline(transactionManager, null, 2, 5_000_000, 100);
+        pipeline.start();
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            results.add(callers.submit(() -> pipeline.execute(runs::incrementAndGet)));
+        }
+
+        // Then - Each caller gets the result of the run that committed
+        assertTrue(results.get(0).get() > 2);
+        assertTrue(results.get(1).get() > 2);
+        assertEquals(4, runs.get());
+        assertEquals(3, transactionManager.commits.get());
+        callers.shutdown();
+    }
+
+    private static class CountingTransactionManager implements PlatformTransactionManager {
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicBoolean failNextCommit = new AtomicBoolean();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits.incrementAndGet();
+            if (failNextCommit.getAndSet(false)) {
+                throw new TransactionSystemException("disk I/O error");
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}